@@ -1,8 +1,15 @@
 package com.faustech;
 
+import com.faustech.effect.EffectChain;
+import com.faustech.effect.FusedEffectPass;
+import com.faustech.gpu.ColorSpace;
 import com.faustech.gpu.GPU;
+import com.faustech.gpu.SharedFrameSource;
+import com.faustech.gpu.StartupTimeline;
 import com.faustech.gpu.VideoFrameToVertexArray;
 import com.faustech.memory.FrameBuffer;
+import com.faustech.topology.ThreadPlacement;
+import java.nio.file.Path;
 import lombok.extern.java.Log;
 
 @Log
@@ -14,26 +21,79 @@ public class Main {
 
   private static final int FRAME_BUFFER_SIZE = WIDTH * HEIGHT * 4; // 4 bytes per pixel
 
-  public static void main(String[] args) {
+  private static final int YUV_BUFFER_SIZE = WIDTH * HEIGHT * 3 / 2; // 1.5 bytes per pixel
 
-    final FrameBuffer frameBuffer = new FrameBuffer(FRAME_BUFFER_SIZE);
+  private static final String EFFECTS_PROPERTY = "effects"; // Effect chain applied to RGBA frames
+
+  private static final String SHARED_MEMORY_PREFIX = "shm:"; // Marks a shared frame ring source
+
+  private static final long SHUTDOWN_TIMEOUT_MS = 2000; // Time the producer gets to stop
+
+  public static void main(String[] args) throws InterruptedException {
+
+    StartupTimeline.start();
+    final ThreadPlacement placement = ThreadPlacement.fromSystemProperties();
+    ThreadPlacement.install(placement);
+
+    final FrameBuffer frameBuffer = new FrameBuffer(FRAME_BUFFER_SIZE, YUV_BUFFER_SIZE, placement);
 
     if (args.length < 1) {
       throw new IllegalArgumentException("Video file path not provided.");
     }
 
-    final VideoFrameToVertexArray videoFrameToVertexArray =
-        new VideoFrameToVertexArray(args[0], WIDTH, HEIGHT, frameBuffer);
-    GPU gpu = new GPU(WIDTH, HEIGHT, frameBuffer);
+    // A "shm:" source reads YUV420 frames published by another process into a shared ring
+    final boolean shared = args[0].startsWith(SHARED_MEMORY_PREFIX);
+
+    // An optional color space (BT601 or BT709) selects the planar YUV420 streaming path
+    final ColorSpace colorSpace =
+        args.length > 1 ? ColorSpace.valueOf(args[1]) : shared ? ColorSpace.BT709 : null;
+
+    // An optional effect chain, e.g. -Deffects=brightnessContrast=0.05:1.1,sharpen=0.3
+    final String effects = System.getProperty(EFFECTS_PROPERTY);
+    if (effects != null && colorSpace != null) {
+      throw new IllegalArgumentException(
+          "Effects only apply to RGBA frames; drop -Deffects, or the color space and shm: source.");
+    }
+    final FusedEffectPass effectPass =
+        effects != null
+            ? EffectChain.parse(effects).compile(Runtime.getRuntime().availableProcessors())
+            : null;
+
+    final Thread producer =
+        shared
+            ? new SharedFrameSource(
+                Path.of(args[0].substring(SHARED_MEMORY_PREFIX.length())), frameBuffer)
+            : new VideoFrameToVertexArray(
+                args[0], WIDTH, HEIGHT, frameBuffer, colorSpace, effectPass);
+    GPU gpu = new GPU(WIDTH, HEIGHT, frameBuffer, colorSpace);
 
-    videoFrameToVertexArray.start();
+    producer.start();
     gpu.start();
 
     while (gpu.isAlive()) {
       if (gpu.getState() == Thread.State.TERMINATED) {
         gpu.interrupt();
-        videoFrameToVertexArray.interrupt();
+        producer.interrupt();
       }
     }
+    producer.interrupt();
+    producer.join(SHUTDOWN_TIMEOUT_MS);
+    if (effectPass != null) {
+      effectPass.close();
+    }
+
+    log.info(String.format("Thread placement: %s", placement.getReport()));
+    if (producer instanceof VideoFrameToVertexArray video
+        && video.getSeekLatency().getCount() > 0) {
+      log.info(String.format("Seek-to-display latency: %s", video.getSeekLatency()));
+    }
+
+    // Native frame memory can only go once nothing writes to it anymore
+    if (producer.isAlive()) {
+      log.warning("Producer did not stop, leaving frame memory allocated");
+    } else {
+      frameBuffer.free();
+    }
+    placement.close();
   }
 }
@@ -0,0 +1,6 @@
+package com.faustech.dto;
+
+import lombok.Builder;
+
+@Builder
+public record DecodedFrameDto(long timestamp, byte[] yuv) {}
@@ -0,0 +1,16 @@
+package com.faustech.effect;
+
+/**
+ * Shifts brightness and scales contrast around mid-grey.
+ *
+ * @param brightness The offset added to every channel, in normalized units.
+ * @param contrast The factor applied around 0.5, where 1 leaves the frame unchanged.
+ */
+public record BrightnessContrast(float brightness, float contrast) implements PixelEffect {
+
+  @Override
+  public float apply(final int channel, final float value) {
+
+    return (value - 0.5f) * contrast + 0.5f + brightness;
+  }
+}
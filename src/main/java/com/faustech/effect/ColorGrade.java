@@ -0,0 +1,25 @@
+package com.faustech.effect;
+
+/**
+ * Applies a per-channel gain followed by a gamma curve.
+ *
+ * @param redGain The gain of the red channel.
+ * @param greenGain The gain of the green channel.
+ * @param blueGain The gain of the blue channel.
+ * @param gamma The gamma exponent, where 1 leaves the frame unchanged.
+ */
+public record ColorGrade(float redGain, float greenGain, float blueGain, float gamma)
+    implements PixelEffect {
+
+  @Override
+  public float apply(final int channel, final float value) {
+
+    final float gain =
+        switch (channel) {
+          case 0 -> redGain;
+          case 1 -> greenGain;
+          default -> blueGain;
+        };
+    return (float) Math.pow(Math.max(0.0f, value * gain), gamma);
+  }
+}
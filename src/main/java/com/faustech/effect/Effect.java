@@ -0,0 +1,4 @@
+package com.faustech.effect;
+
+/** A post-processing step applied to decoded frames before they reach the frame buffer. */
+public interface Effect {}
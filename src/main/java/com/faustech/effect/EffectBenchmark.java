@@ -0,0 +1,102 @@
+package com.faustech.effect;
+
+import com.faustech.metrics.LatencyRecorder;
+import java.util.Random;
+import lombok.extern.java.Log;
+
+/**
+ * Measures the cost of an effect chain per frame: the fused pass against the sequential reference,
+ * and against a fused single pixel effect as the floor any chain pays for touching every pixel.
+ */
+@Log
+public class EffectBenchmark {
+
+  private static final String SINGLE_OP = "brightnessContrast=0.05:1.1"; // Cheapest fused pass
+
+  private static final String DEFAULT_CHAIN =
+      "brightnessContrast=0.05:1.1,colorGrade=1.05:1:0.95:0.9,sharpen=0.3";
+
+  private static final int WARM_UP_FRAMES = 50; // Frames run before measuring, to compile the loops
+
+  /**
+   * Runs the benchmark and logs the frame time percentiles of each variant.
+   *
+   * @param args Optionally the chain, frame width, frame height, thread count and measured frames.
+   * @throws InterruptedException If the benchmark is interrupted.
+   */
+  public static void main(String[] args) throws InterruptedException {
+
+    final EffectChain chain = EffectChain.parse(args.length > 0 ? args[0] : DEFAULT_CHAIN);
+    final int width = args.length > 1 ? Integer.parseInt(args[1]) : 1080;
+    final int height = args.length > 2 ? Integer.parseInt(args[2]) : 720;
+    final int threads =
+        args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    final int frames = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+
+    final int[] pixels = new int[width * height];
+    final Random random = new Random(0);
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+    }
+    final int[] out = new int[pixels.length];
+    final RowSink sink = (y, row, offset) -> System.arraycopy(row, offset, out, y * width, width);
+
+    log.info(
+        String.format(
+            "Effect benchmark: %dx%d, %d threads, %d frames", width, height, threads, frames));
+
+    try (FusedEffectPass single = EffectChain.parse(SINGLE_OP).compile(threads);
+        FusedEffectPass fused = chain.compile(threads)) {
+      final LatencyRecorder singleTimes =
+          measure(frames, () -> single.apply(pixels, width, height, sink));
+      final LatencyRecorder fusedTimes =
+          measure(frames, () -> fused.apply(pixels, width, height, sink));
+      final LatencyRecorder sequentialTimes =
+          measure(frames, () -> chain.applySequentially(pixels, width, height));
+
+      log.info(String.format("Single op (fused): %s", singleTimes));
+      log.info(String.format("Chain (fused):     %s", fusedTimes));
+      log.info(String.format("Chain (reference): %s", sequentialTimes));
+      log.info(
+          String.format(
+              "Fused chain costs %.2fx a single op and runs %.2fx faster than the reference",
+              fusedTimes.getPercentileNanos(50) / (double) singleTimes.getPercentileNanos(50),
+              sequentialTimes.getPercentileNanos(50) / (double) fusedTimes.getPercentileNanos(50)));
+    }
+  }
+
+  /**
+   * Times a frame operation after warming it up.
+   *
+   * @param frames The number of measured frames.
+   * @param frame The operation processing one frame.
+   * @return The recorded frame times.
+   * @throws InterruptedException If the benchmark is interrupted.
+   */
+  private static LatencyRecorder measure(final int frames, final FrameOperation frame)
+      throws InterruptedException {
+
+    for (int i = 0; i < WARM_UP_FRAMES; i++) {
+      frame.run();
+    }
+    final LatencyRecorder times = new LatencyRecorder(frames);
+    for (int i = 0; i < frames; i++) {
+      final long start = System.nanoTime();
+      frame.run();
+      times.record(System.nanoTime() - start);
+    }
+    return times;
+  }
+
+  /** One frame of work that may be interrupted. */
+  @FunctionalInterface
+  private interface FrameOperation {
+
+    /**
+     * Processes one frame.
+     *
+     * @throws InterruptedException If the benchmark is interrupted.
+     */
+    void run() throws InterruptedException;
+  }
+}
@@ -0,0 +1,126 @@
+package com.faustech.effect;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * An ordered list of effects. The chain can be compiled into a {@link FusedEffectPass} that applies
+ * all of them in one pass, or applied one effect at a time as a reference.
+ */
+@Getter
+public class EffectChain {
+
+  private final List<Effect> effects; // Effects in application order
+
+  /**
+   * Constructs a chain.
+   *
+   * @param effects The effects in application order.
+   */
+  public EffectChain(final List<Effect> effects) {
+
+    this.effects = List.copyOf(effects);
+  }
+
+  /**
+   * Parses a chain such as {@code brightnessContrast=0.05:1.1,colorGrade=1:1:1.1:0.9,sharpen=0.3},
+   * where each effect's arguments follow its record components in order.
+   *
+   * @param spec The comma-separated effects.
+   * @return The parsed chain.
+   * @throws IllegalArgumentException If an effect is unknown or has the wrong arguments.
+   */
+  public static EffectChain parse(final String spec) {
+
+    final List<Effect> effects = new ArrayList<>();
+    for (String entry : spec.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      final String[] parts = entry.trim().split("=", 2);
+      final String name = parts[0].trim();
+      final int arity =
+          switch (name) {
+            case "brightnessContrast" -> 2;
+            case "colorGrade" -> 4;
+            case "sharpen" -> 1;
+            default ->
+                throw new IllegalArgumentException(String.format("Unknown effect: %s", name));
+          };
+
+      final String[] args = parts.length > 1 ? parts[1].split(":", -1) : new String[0];
+      if (args.length != arity) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Effect %s takes %d arguments, got %d: %s",
+                name,
+                arity,
+                args.length,
+                entry.trim()));
+      }
+      final float[] values = new float[args.length];
+      for (int i = 0; i < args.length; i++) {
+        try {
+          values[i] = Float.parseFloat(args[i].trim());
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(
+              String.format("Effect %s has an invalid argument '%s'", name, args[i].trim()));
+        }
+      }
+
+      effects.add(
+          switch (name) {
+            case "brightnessContrast" -> new BrightnessContrast(values[0], values[1]);
+            case "colorGrade" -> new ColorGrade(values[0], values[1], values[2], values[3]);
+            case "sharpen" -> new Sharpen(values[0]);
+            default ->
+                throw new IllegalArgumentException(String.format("Unknown effect: %s", name));
+          });
+    }
+    return new EffectChain(effects);
+  }
+
+  /**
+   * Compiles the chain into a single fused pass.
+   *
+   * @param threads The number of threads sharing the pass.
+   * @return The fused pass.
+   */
+  public FusedEffectPass compile(final int threads) {
+
+    return new FusedEffectPass(this, threads);
+  }
+
+  /**
+   * Applies every effect as its own full-frame pass over 8-bit pixels. This is the slow reference
+   * the fused pass must match exactly.
+   *
+   * @param pixels The frame as packed ARGB.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @return A new array holding the processed frame.
+   */
+  public int[] applySequentially(final int[] pixels, final int width, final int height) {
+
+    int[] frame = pixels.clone();
+    for (Effect effect : effects) {
+      if (effect instanceof PixelEffect pixelEffect) {
+        final int[] lut = pixelEffect.toLut();
+        for (int i = 0; i < frame.length; i++) {
+          frame[i] = FusedEffectPass.lookup(lut, frame[i]);
+        }
+      } else if (effect instanceof Sharpen sharpen) {
+        final int[] source = frame;
+        frame = new int[source.length];
+        for (int y = 0; y < height; y++) {
+          final int above = Math.max(y - 1, 0) * width;
+          final int below = Math.min(y + 1, height - 1) * width;
+          FusedEffectPass.sharpenRow(
+              sharpen, source, above, source, y * width, source, below, frame, y * width, width);
+        }
+      }
+    }
+    return frame;
+  }
+}
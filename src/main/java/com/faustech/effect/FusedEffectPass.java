@@ -0,0 +1,286 @@
+package com.faustech.effect;
+
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An {@link EffectChain} compiled into one pass over the frame. Consecutive pixel effects are
+ * composed into a single lookup table; a sharpen splits the chain into a table applied before it
+ * and one applied after it. The frame is processed in horizontal bands on several threads, and each
+ * band keeps a rolling window of three pre-processed rows, so every source pixel is looked up once
+ * and stays in cache while its neighbours are sharpened.
+ */
+public class FusedEffectPass implements AutoCloseable {
+
+  private static final int BANDS_PER_THREAD = 2; // Extra bands balance uneven thread start times
+
+  private final int[] preLut; // Table applied before the sharpen, or the whole chain without one
+
+  private final Sharpen sharpen; // The neighbourhood effect, or null
+
+  private final int[] postLut; // Table applied after the sharpen
+
+  private final int threads; // Number of threads sharing the pass
+
+  private final ExecutorService executor; // Runs the bands
+
+  /**
+   * Compiles a chain.
+   *
+   * @param chain The chain to compile.
+   * @param threads The number of threads sharing the pass.
+   */
+  FusedEffectPass(final EffectChain chain, final int threads) {
+
+    int[] pre = identityLut();
+    int[] post = identityLut();
+    Sharpen neighbourhood = null;
+
+    for (Effect effect : chain.getEffects()) {
+      if (effect instanceof PixelEffect pixelEffect) {
+        if (neighbourhood == null) {
+          pre = compose(pre, pixelEffect.toLut());
+        } else {
+          post = compose(post, pixelEffect.toLut());
+        }
+      } else if (effect instanceof Sharpen sharpenEffect) {
+        if (neighbourhood != null) {
+          throw new IllegalArgumentException("Only one sharpen per effect chain is supported");
+        }
+        neighbourhood = sharpenEffect;
+      }
+    }
+
+    this.preLut = pre;
+    this.sharpen = neighbourhood;
+    this.postLut = post;
+    this.threads = threads;
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      () -> {
+                        ThreadPlacement.pinCurrentThreadToNode(PipelineRole.CONVERT);
+                        runnable.run();
+                      },
+                      "effect-band");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Looks up the three color channels of a packed ARGB pixel, forcing it opaque.
+   *
+   * @param lut The three-channel lookup table.
+   * @param pixel The packed ARGB pixel.
+   * @return The looked-up pixel.
+   */
+  static int lookup(final int[] lut, final int pixel) {
+
+    return 0xFF000000
+        | lut[(pixel >> 16) & 0xFF] << 16
+        | lut[256 + ((pixel >> 8) & 0xFF)] << 8
+        | lut[512 + (pixel & 0xFF)];
+  }
+
+  /**
+   * Sharpens one row from the rows above and below it.
+   *
+   * @param sharpen The sharpen effect.
+   * @param above The array holding the row above.
+   * @param aboveOffset The index of the row above.
+   * @param current The array holding the row to sharpen.
+   * @param currentOffset The index of the row to sharpen.
+   * @param below The array holding the row below.
+   * @param belowOffset The index of the row below.
+   * @param out The array receiving the sharpened row.
+   * @param outOffset The index where the sharpened row is written.
+   * @param width The row width.
+   */
+  static void sharpenRow(
+      final Sharpen sharpen,
+      final int[] above,
+      final int aboveOffset,
+      final int[] current,
+      final int currentOffset,
+      final int[] below,
+      final int belowOffset,
+      final int[] out,
+      final int outOffset,
+      final int width) {
+
+    final int weight = sharpen.getWeight();
+    for (int x = 0; x < width; x++) {
+      final int center = current[currentOffset + x];
+      final int north = above[aboveOffset + x];
+      final int south = below[belowOffset + x];
+      final int west = current[currentOffset + Math.max(x - 1, 0)];
+      final int east = current[currentOffset + Math.min(x + 1, width - 1)];
+
+      int pixel = 0xFF000000;
+      for (int shift = 16; shift >= 0; shift -= 8) {
+        final int neighbours =
+            ((north >> shift) & 0xFF)
+                + ((south >> shift) & 0xFF)
+                + ((west >> shift) & 0xFF)
+                + ((east >> shift) & 0xFF);
+        pixel |= Sharpen.apply(weight, (center >> shift) & 0xFF, neighbours) << shift;
+      }
+      out[outOffset + x] = pixel;
+    }
+  }
+
+  /**
+   * Builds a table that leaves every channel unchanged.
+   *
+   * @return The identity table.
+   */
+  private static int[] identityLut() {
+
+    final int[] lut = new int[3 * 256];
+    for (int i = 0; i < lut.length; i++) {
+      lut[i] = i & 0xFF;
+    }
+    return lut;
+  }
+
+  /**
+   * Composes two tables into one that applies {@code first} and then {@code second}.
+   *
+   * @param first The table applied first.
+   * @param second The table applied second.
+   * @return The composed table.
+   */
+  private static int[] compose(final int[] first, final int[] second) {
+
+    final int[] lut = new int[3 * 256];
+    for (int i = 0; i < lut.length; i++) {
+      final int channel = i / 256;
+      lut[i] = second[channel * 256 + first[i]];
+    }
+    return lut;
+  }
+
+  /**
+   * Applies the chain to a frame, handing each finished row to the sink. Rows are delivered from
+   * several threads, each row exactly once.
+   *
+   * @param pixels The frame as packed ARGB; it is not modified.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param sink Receives the processed rows.
+   * @throws InterruptedException If the calling thread is interrupted; some rows may then be
+   *     missing, so the frame must not be shown.
+   */
+  public void apply(final int[] pixels, final int width, final int height, final RowSink sink)
+      throws InterruptedException {
+
+    final int bands = Math.min(height, threads * BANDS_PER_THREAD);
+    final List<Callable<Void>> tasks = new ArrayList<>(bands);
+    for (int band = 0; band < bands; band++) {
+      final int firstRow = band * height / bands;
+      final int lastRow = (band + 1) * height / bands;
+      tasks.add(
+          () -> {
+            applyBand(pixels, width, height, firstRow, lastRow, sink);
+            return null;
+          });
+    }
+
+    try {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException(String.format("Error applying effects: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Processes a band of rows.
+   *
+   * @param pixels The frame as packed ARGB.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param firstRow The first row of the band, inclusive.
+   * @param lastRow The last row of the band, exclusive.
+   * @param sink Receives the processed rows.
+   */
+  private void applyBand(
+      final int[] pixels,
+      final int width,
+      final int height,
+      final int firstRow,
+      final int lastRow,
+      final RowSink sink) {
+
+    final int[] out = new int[width];
+
+    if (sharpen == null) {
+      for (int y = firstRow; y < lastRow; y++) {
+        for (int x = 0; x < width; x++) {
+          out[x] = lookup(preLut, pixels[y * width + x]);
+        }
+        sink.accept(y, out, 0);
+      }
+      return;
+    }
+
+    // Rolling window of pre-processed rows: above, current and below
+    int[] above = new int[width];
+    int[] current = new int[width];
+    int[] below = new int[width];
+    lookupRow(pixels, Math.max(firstRow - 1, 0), width, above);
+    lookupRow(pixels, firstRow, width, current);
+
+    for (int y = firstRow; y < lastRow; y++) {
+      lookupRow(pixels, Math.min(y + 1, height - 1), width, below);
+      sharpenRow(sharpen, above, 0, current, 0, below, 0, out, 0, width);
+      for (int x = 0; x < width; x++) {
+        out[x] = lookup(postLut, out[x]);
+      }
+      sink.accept(y, out, 0);
+
+      final int[] recycled = above;
+      above = current;
+      current = below;
+      below = recycled;
+    }
+  }
+
+  /**
+   * Applies the pre-sharpen table to one source row.
+   *
+   * @param pixels The frame as packed ARGB.
+   * @param y The row index.
+   * @param width The frame width.
+   * @param row The array receiving the row.
+   */
+  private void lookupRow(final int[] pixels, final int y, final int width, final int[] row) {
+
+    final int offset = y * width;
+    for (int x = 0; x < width; x++) {
+      row[x] = lookup(preLut, pixels[offset + x]);
+    }
+  }
+
+  /** Stops the band threads. */
+  @Override
+  public void close() {
+
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,31 @@
+package com.faustech.effect;
+
+/** An effect whose output depends only on the pixel itself, so it folds into a lookup table. */
+public interface PixelEffect extends Effect {
+
+  /**
+   * Applies the effect to one channel of a pixel.
+   *
+   * @param channel The channel index (0 for red, 1 for green, 2 for blue).
+   * @param value The normalized channel value.
+   * @return The normalized result, clamped later.
+   */
+  float apply(int channel, float value);
+
+  /**
+   * Tabulates the effect for every 8-bit input, three channels of 256 entries one after another.
+   *
+   * @return The lookup table.
+   */
+  default int[] toLut() {
+
+    final int[] lut = new int[3 * 256];
+    for (int channel = 0; channel < 3; channel++) {
+      for (int value = 0; value < 256; value++) {
+        final float result = apply(channel, value / 255.0f);
+        lut[channel * 256 + value] = Math.round(Math.min(1.0f, Math.max(0.0f, result)) * 255.0f);
+      }
+    }
+    return lut;
+  }
+}
@@ -0,0 +1,15 @@
+package com.faustech.effect;
+
+/** Receives processed rows of a frame, possibly from several threads at once. */
+@FunctionalInterface
+public interface RowSink {
+
+  /**
+   * Accepts one processed row.
+   *
+   * @param y The row index.
+   * @param pixels The array holding the row as packed ARGB.
+   * @param offset The index of the row's first pixel in the array.
+   */
+  void accept(int y, int[] pixels, int offset);
+}
@@ -0,0 +1,33 @@
+package com.faustech.effect;
+
+/**
+ * Sharpens with a 4-neighbour Laplacian kernel, clamping at the frame edges.
+ *
+ * @param amount The sharpening strength, where 0 leaves the frame unchanged.
+ */
+public record Sharpen(float amount) implements Effect {
+
+  /**
+   * Returns the strength in 8.8 fixed point, so the kernel runs on integers only.
+   *
+   * @return The fixed-point weight of each neighbour.
+   */
+  public int getWeight() {
+
+    return Math.round(amount * 256);
+  }
+
+  /**
+   * Sharpens one 8-bit channel from its value and its four neighbours.
+   *
+   * @param weight The fixed-point weight from {@link #getWeight()}.
+   * @param center The channel value of the pixel.
+   * @param neighbours The sum of the channel values of the four neighbours.
+   * @return The sharpened 8-bit value.
+   */
+  public static int apply(final int weight, final int center, final int neighbours) {
+
+    final int value = (center * (256 + 4 * weight) - weight * neighbours + 128) >> 8;
+    return Math.min(255, Math.max(0, value));
+  }
+}
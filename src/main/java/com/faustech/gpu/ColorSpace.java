@@ -0,0 +1,50 @@
+package com.faustech.gpu;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Enumerates the YUV color spaces supported by the planar streaming path. */
+@Getter
+@RequiredArgsConstructor
+public enum ColorSpace {
+  BT601(0.299f, 0.114f), // SD video (ITU-R BT.601)
+  BT709(0.2126f, 0.0722f); // HD video (ITU-R BT.709)
+
+  private static final float LUMA_SCALE = 255.0f / 219.0f; // Expands limited-range luma
+
+  private static final float CHROMA_SCALE = 255.0f / 224.0f; // Expands limited-range chroma
+
+  private final float kr; // Red luma coefficient
+
+  private final float kb; // Blue luma coefficient
+
+  /**
+   * Builds the row-major 3x3 matrix that converts offset-corrected YUV into RGB. The same matrix is
+   * uploaded to the shader and used by {@link YuvToRgbConverter}, so both paths share their math.
+   *
+   * @return A 9-element row-major conversion matrix.
+   */
+  public float[] getMatrix() {
+
+    final float kg = 1.0f - kr - kb;
+    final float rv = CHROMA_SCALE * 2.0f * (1.0f - kr);
+    final float gu = -CHROMA_SCALE * 2.0f * kb * (1.0f - kb) / kg;
+    final float gv = -CHROMA_SCALE * 2.0f * kr * (1.0f - kr) / kg;
+    final float bu = CHROMA_SCALE * 2.0f * (1.0f - kb);
+    return new float[] {
+      LUMA_SCALE, 0.0f, rv,
+      LUMA_SCALE, gu, gv,
+      LUMA_SCALE, bu, 0.0f
+    };
+  }
+
+  /**
+   * Returns the normalized offsets subtracted from limited-range YUV samples before conversion.
+   *
+   * @return A 3-element offset vector for Y, U and V.
+   */
+  public float[] getOffset() {
+
+    return new float[] {16.0f / 255.0f, 128.0f / 255.0f, 128.0f / 255.0f};
+  }
+}
@@ -2,23 +2,36 @@ package com.faustech.gpu;
 
 import com.faustech.memory.FrameBuffer;
 import com.faustech.memory.MemoryException;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import lombok.extern.java.Log;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL46;
 
 /** Represents a GPU component that handles rendering operations. */
+@Log
 public class GPU extends RenderData {
 
+  private static final long FIRST_FRAME_TIMEOUT_MS = 2000; // Longest wait for the first frame
+
+  private static final long EVENT_POLL_INTERVAL_MS = 16; // Window event polling while waiting
+
   @Getter private static int width;
 
   @Getter private static int height;
 
   private final FrameBuffer frameBuffer;
 
+  private final ColorSpace colorSpace; // Color space of the planar YUV420 path, or null for RGBA
+
   private ShaderProgram shaderProgram;
 
   private Window window;
 
+  private boolean firstFramePresented; // Keeps the timeline lock out of the render loop
+
   /**
    * Constructs a new GPU instance with specified dimensions and framebuffer.
    *
@@ -27,18 +40,38 @@ public class GPU extends RenderData {
    * @param frameBuffer the framebuffer to use for rendering.
    */
   public GPU(final int width, final int height, final FrameBuffer frameBuffer) {
+
+    this(width, height, frameBuffer, null);
+  }
+
+  /**
+   * Constructs a new GPU instance that renders planar YUV420 frames when a color space is given.
+   *
+   * @param width the width of the render window.
+   * @param height the height of the render window.
+   * @param frameBuffer the framebuffer to use for rendering.
+   * @param colorSpace the YUV color space, or null to render RGBA frames.
+   */
+  public GPU(
+      final int width,
+      final int height,
+      final FrameBuffer frameBuffer,
+      final ColorSpace colorSpace) {
     super(width, height);
 
     GPU.width = width;
     GPU.height = height;
     this.frameBuffer = frameBuffer;
+    this.colorSpace = colorSpace;
   }
 
   /** The main run loop of the GPU component, handling initialization and rendering. */
   @Override
   public void run() {
 
+    ThreadPlacement.pinCurrentThread(PipelineRole.RENDER);
     init();
+    awaitFirstFrame();
     while (isRunning()) {
       try {
         render();
@@ -66,12 +99,42 @@ public class GPU extends RenderData {
         (ignore, newWidth, newHeight) -> GL46.glViewport(0, 0, newWidth, newHeight));
 
     shaderProgram = new ShaderProgram();
-    shaderProgram.loadShaders();
-    shaderProgram.use();
-
-    setup();
+    if (colorSpace != null) {
+      shaderProgram.loadYuvShaders(colorSpace);
+      shaderProgram.use();
+      setupYuv();
+    } else {
+      shaderProgram.loadShaders();
+      shaderProgram.use();
+      setup();
+    }
 
     GL46.glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+    StartupTimeline.record(StartupEvent.RENDERER_READY);
+  }
+
+  /**
+   * Holds the first present until the producer has swapped in a frame, so the window does not show
+   * an empty buffer. Window events are polled while waiting so the window stays responsive, and the
+   * wait ends early if the window is closed or gives up after a short timeout.
+   */
+  private void awaitFirstFrame() {
+
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FIRST_FRAME_TIMEOUT_MS);
+    try {
+      while (!frameBuffer.awaitFirstFrame(EVENT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+        window.pollEvents();
+        if (window.shouldClose()) {
+          return;
+        }
+        if (System.nanoTime() - deadline >= 0) {
+          log.warning("No frame available yet, presenting an empty buffer");
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      interrupt();
+    }
   }
 
   /**
@@ -93,9 +156,17 @@ public class GPU extends RenderData {
 
     GL46.glClear(GL46.GL_COLOR_BUFFER_BIT | GL46.GL_DEPTH_BUFFER_BIT);
 
-    draw(frameBuffer.getRenderData());
+    if (colorSpace != null) {
+      drawYuv(frameBuffer);
+    } else {
+      draw(frameBuffer.getRenderData());
+    }
 
     window.swapBuffers();
+    if (!firstFramePresented && frameBuffer.hasFrame()) {
+      StartupTimeline.record(StartupEvent.FIRST_FRAME_PRESENTED);
+      firstFramePresented = true;
+    }
     window.pollEvents();
   }
 
@@ -0,0 +1,281 @@
+package com.faustech.gpu;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import lombok.Getter;
+import lombok.extern.java.Log;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Holds the presentation timestamps of the keyframes of a video, in ascending order. The index is
+ * cached in a cache directory, never beside the video, so it is only built once per file. The
+ * directory is {@code -DkeyframeCacheDir}, by default {@code keyframe-index} under the temporary
+ * directory.
+ */
+@Log
+public class KeyframeIndex {
+
+  private static final String CACHE_DIRECTORY_PROPERTY = "keyframeCacheDir"; // Cache location
+
+  private static final String CACHE_SUFFIX = ".keyframes"; // Appended to the cache file name
+
+  private static final int CACHE_MAGIC = 0x4B465849; // "KFXI"
+
+  private static final int CACHE_VERSION = 1; // Cache file layout version
+
+  private static final int CACHE_HEADER_SIZE = 36; // Bytes before the first timestamp
+
+  private final long[] timestamps; // Keyframe timestamps in microseconds
+
+  @Getter private final long duration; // Length of the video in microseconds
+
+  /**
+   * Constructs an index from keyframe timestamps.
+   *
+   * @param timestamps The keyframe timestamps in microseconds, in ascending order.
+   * @param duration The length of the video in microseconds.
+   */
+  public KeyframeIndex(final long[] timestamps, final long duration) {
+
+    this.timestamps = timestamps;
+    this.duration = duration;
+  }
+
+  /**
+   * Loads the cached index of a video from the configured cache directory, building and caching it
+   * when the cache is missing, older than the video or unreadable.
+   *
+   * @param videoFilePath Path to the video file.
+   * @return The keyframe index.
+   */
+  public static KeyframeIndex load(final String videoFilePath) {
+
+    return load(
+        videoFilePath,
+        Path.of(
+            System.getProperty(
+                CACHE_DIRECTORY_PROPERTY,
+                Path.of(System.getProperty("java.io.tmpdir"), "keyframe-index").toString())));
+  }
+
+  /**
+   * Loads the cached index of a video, building and caching it when the cache is missing, older
+   * than the video or unreadable.
+   *
+   * @param videoFilePath Path to the video file.
+   * @param cacheDirectory The directory holding the cache files, created when missing.
+   * @return The keyframe index.
+   */
+  public static KeyframeIndex load(final String videoFilePath, final Path cacheDirectory) {
+
+    final Path video = Path.of(videoFilePath);
+    if (!Files.isRegularFile(video)) {
+      return build(videoFilePath); // Streams and URLs have no file to key a cache on
+    }
+
+    final Path cache = cacheFile(video, cacheDirectory);
+    try {
+      final long size = Files.size(video);
+      final long modified = Files.getLastModifiedTime(video).toMillis();
+      if (Files.isRegularFile(cache)) {
+        try {
+          final KeyframeIndex cached = read(cache, size, modified);
+          if (cached != null) {
+            return cached;
+          }
+        } catch (IOException e) {
+          log.warning(String.format("Rebuilding unreadable keyframe index: %s", e.getMessage()));
+        }
+      }
+
+      final KeyframeIndex index = build(videoFilePath);
+      try {
+        Files.createDirectories(cacheDirectory);
+        index.write(cache, size, modified);
+      } catch (IOException e) {
+        log.warning(String.format("Could not cache keyframe index: %s", e.getMessage()));
+      }
+      return index;
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Error loading keyframe index: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Names the cache file of a video after a hash of its absolute path, so videos with the same name
+   * in different directories do not share an index.
+   *
+   * @param video The video file.
+   * @param cacheDirectory The directory holding the cache files.
+   * @return The cache file.
+   */
+  static Path cacheFile(final Path video, final Path cacheDirectory) {
+
+    final Path absolute = video.toAbsolutePath().normalize();
+    final String hash = HexFormat.of().formatHex(sha256(absolute.toString()), 0, 8);
+    return cacheDirectory.resolve(hash + "-" + absolute.getFileName() + CACHE_SUFFIX);
+  }
+
+  /**
+   * Hashes a string with SHA-256.
+   *
+   * @param value The string to hash.
+   * @return The digest.
+   */
+  private static byte[] sha256(final String value) {
+
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Reads a cached index if it still matches the video.
+   *
+   * @param cache The cache file.
+   * @param size The current size of the video file.
+   * @param modified The current modification time of the video file in milliseconds.
+   * @return The cached index, or null if the cache is stale, not an index or of the wrong length.
+   * @throws IOException If the cache cannot be read or ends early.
+   */
+  private static KeyframeIndex read(final Path cache, final long size, final long modified)
+      throws IOException {
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+      if (in.readInt() != CACHE_MAGIC
+          || in.readInt() != CACHE_VERSION
+          || in.readLong() != size
+          || in.readLong() != modified) {
+        return null;
+      }
+
+      final long duration = in.readLong();
+      final int count = in.readInt();
+      if (count < 0 || Files.size(cache) != CACHE_HEADER_SIZE + count * 8L) {
+        return null;
+      }
+      final long[] timestamps = new long[count];
+      for (int i = 0; i < timestamps.length; i++) {
+        timestamps[i] = in.readLong();
+      }
+      return new KeyframeIndex(timestamps, duration);
+    }
+  }
+
+  /**
+   * Writes the index to a cache file. The file is written under a temporary name and moved into
+   * place, so readers never see a partial index, even when two processes index the same video.
+   *
+   * @param cache The cache file.
+   * @param size The size of the indexed video file.
+   * @param modified The modification time of the indexed video file in milliseconds.
+   * @throws IOException If the cache cannot be written.
+   */
+  private void write(final Path cache, final long size, final long modified) throws IOException {
+
+    final Path temp =
+        Files.createTempFile(
+            cache.toAbsolutePath().getParent(), cache.getFileName().toString(), null);
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(CACHE_MAGIC);
+        out.writeInt(CACHE_VERSION);
+        out.writeLong(size);
+        out.writeLong(modified);
+        out.writeLong(duration);
+        out.writeInt(timestamps.length);
+        for (long timestamp : timestamps) {
+          out.writeLong(timestamp);
+        }
+      }
+      Files.move(temp, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Builds the index by decoding only the keyframes of a video, without converting their pixels.
+   *
+   * @param videoFilePath Path to the video file.
+   * @return The keyframe index.
+   */
+  public static KeyframeIndex build(final String videoFilePath) {
+
+    try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFilePath)) {
+      grabber.start();
+      long[] timestamps = new long[64];
+      int size = 0;
+      Frame frame;
+
+      // Audio off, video on, no pixel conversion, keyframes only
+      while ((frame = grabber.grabFrame(false, true, false, true)) != null) {
+        if (frame.image == null) {
+          continue;
+        }
+        if (size == timestamps.length) {
+          timestamps = Arrays.copyOf(timestamps, size * 2);
+        }
+        timestamps[size++] = frame.timestamp;
+      }
+
+      final long duration = grabber.getLengthInTime();
+      grabber.stop();
+      return new KeyframeIndex(Arrays.copyOf(timestamps, size), duration);
+    } catch (Exception e) {
+      throw new RuntimeException(String.format("Error indexing video: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Returns the number of keyframes.
+   *
+   * @return The keyframe count.
+   */
+  public int size() {
+
+    return timestamps.length;
+  }
+
+  /**
+   * Returns the timestamp of a keyframe.
+   *
+   * @param index The keyframe position in the index.
+   * @return The timestamp in microseconds.
+   */
+  public long getTimestamp(final int index) {
+
+    return timestamps[index];
+  }
+
+  /**
+   * Finds the last keyframe at or before a timestamp.
+   *
+   * @param timestamp The timestamp in microseconds.
+   * @return The keyframe position in the index, or -1 if the index is empty.
+   */
+  public int floorIndex(final long timestamp) {
+
+    if (timestamps.length == 0) {
+      return -1;
+    }
+    final int found = Arrays.binarySearch(timestamps, timestamp);
+    return found >= 0 ? found : Math.max(0, -found - 2);
+  }
+}
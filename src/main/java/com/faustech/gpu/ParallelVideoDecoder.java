@@ -0,0 +1,236 @@
+package com.faustech.gpu;
+
+import com.faustech.dto.DecodedFrameDto;
+import com.faustech.memory.Yuv420;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Decodes a whole video on several threads for offline conversion and warm-up. The video is split
+ * into ranges that start on keyframes, each range is decoded by its own grabber, and the frames are
+ * handed to the caller in presentation order through a per-range reorder buffer.
+ */
+@Log
+@RequiredArgsConstructor
+public class ParallelVideoDecoder {
+
+  private static final int SEGMENTS_PER_THREAD = 4; // Finer ranges balance uneven GOPs
+
+  private static final int SEGMENT_QUEUE_CAPACITY = 16; // Frames buffered ahead per range
+
+  private static final DecodedFrameDto END_OF_SEGMENT = DecodedFrameDto.builder().build();
+
+  private final String videoFilePath; // Path to the video file
+
+  private final int width; // Width of the decoded frames
+
+  private final int height; // Height of the decoded frames
+
+  private final int threads; // Number of concurrent grabbers
+
+  /**
+   * Decodes every frame of the video as planar YUV420 and passes them to the sink in order.
+   *
+   * @param sink Receives the decoded frames on the calling thread.
+   * @return The number of frames decoded.
+   * @throws InterruptedException If the calling thread is interrupted while waiting for frames.
+   */
+  public long decode(final Consumer<DecodedFrameDto> sink) throws InterruptedException {
+
+    if (threads <= 0) {
+      throw new IllegalArgumentException(
+          String.format("Decoding needs at least one thread. (threads: %d)", threads));
+    }
+
+    final long startTime = System.nanoTime();
+    final List<Segment> segments = split(KeyframeIndex.load(videoFilePath));
+    final AtomicReference<Exception> failure = new AtomicReference<>();
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long frames = 0;
+
+    try {
+      // Ranges are queued in order, so the range being drained is always running
+      for (Segment segment : segments) {
+        executor.execute(() -> decodeSegment(segment, failure));
+      }
+
+      for (Segment segment : segments) {
+        DecodedFrameDto frame;
+        while ((frame = segment.frames.take()) != END_OF_SEGMENT) {
+          sink.accept(frame);
+          frames++;
+        }
+        if (failure.get() != null) {
+          throw new RuntimeException(
+              String.format("Error decoding video: %s", failure.get().getMessage()));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    final double seconds = (System.nanoTime() - startTime) / 1e9;
+    log.info(
+        String.format(
+            "Decoded %d frames from %d ranges in %.2f s (%.0f fps)",
+            frames, segments.size(), seconds, frames / seconds));
+    return frames;
+  }
+
+  /**
+   * Splits the video into keyframe-aligned ranges.
+   *
+   * @param index The keyframe index of the video.
+   * @return The ranges in presentation order.
+   */
+  private List<Segment> split(final KeyframeIndex index) {
+
+    final List<Segment> segments = new ArrayList<>();
+    if (index.size() == 0) {
+      segments.add(new Segment(0, Long.MAX_VALUE));
+      return segments;
+    }
+
+    final int count = Math.min(index.size(), threads * SEGMENTS_PER_THREAD);
+    for (int i = 0; i < count; i++) {
+      final long start = i == 0 ? 0 : index.getTimestamp(i * index.size() / count);
+      final long end =
+          i == count - 1 ? Long.MAX_VALUE : index.getTimestamp((i + 1) * index.size() / count);
+      segments.add(new Segment(start, end));
+    }
+    return segments;
+  }
+
+  /**
+   * Decodes one range on its own grabber, always terminating its queue.
+   *
+   * @param segment The range to decode.
+   * @param failure Receives the first decoding error.
+   */
+  private void decodeSegment(final Segment segment, final AtomicReference<Exception> failure) {
+
+    ThreadPlacement.pinCurrentThreadToNode(PipelineRole.DECODE);
+    try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFilePath)) {
+      grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+      grabber.setImageWidth(width);
+      grabber.setImageHeight(height);
+      grabber.start();
+      if (segment.start > 0) {
+        grabber.setTimestamp(segment.start); // Lands on the range's keyframe
+      }
+
+      Frame frame;
+      while (failure.get() == null && (frame = grabber.grabImage()) != null) {
+        if (frame.timestamp >= segment.end) {
+          break;
+        }
+        if (frame.timestamp >= segment.start) {
+          segment.frames.put(copyYuvFrame(frame));
+        }
+      }
+      grabber.stop();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      failure.compareAndSet(null, e);
+    } finally {
+      try {
+        segment.frames.put(END_OF_SEGMENT);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt(); // Only happens once the reader has given up
+      }
+    }
+  }
+
+  /**
+   * Copies the planes of a YUV420 frame into a packed array, dropping row padding.
+   *
+   * @param frame The planar YUV420 frame, already scaled to the target size.
+   * @return The decoded frame.
+   */
+  private DecodedFrameDto copyYuvFrame(final Frame frame) {
+
+    final byte[] yuv = new byte[Yuv420.frameSize(width, height)];
+    Yuv420.copyPlanes(
+        (ByteBuffer) frame.image[0], frame.imageStride, width, height, ByteBuffer.wrap(yuv), 0);
+    return DecodedFrameDto.builder().timestamp(frame.timestamp).yuv(yuv).build();
+  }
+
+  /**
+   * Decodes a video on several threads, optionally exporting it as raw planar YUV420 frames that
+   * can be replayed through a shared frame ring, and logs the decoding throughput.
+   *
+   * @param args The video path, frame width, frame height, and optionally the thread count and the
+   *     output file.
+   * @throws Exception If the video cannot be decoded or the output cannot be written.
+   */
+  public static void main(String[] args) throws Exception {
+
+    if (args.length < 3) {
+      throw new IllegalArgumentException(
+          "Usage: <video path> <width> <height> [threads] [output.yuv]");
+    }
+
+    final int threads =
+        args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    final ParallelVideoDecoder decoder =
+        new ParallelVideoDecoder(
+            args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), threads);
+
+    if (args.length < 5) {
+      decoder.decode(frame -> {});
+      return;
+    }
+
+    try (FileChannel output =
+        FileChannel.open(
+            Path.of(args[4]),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      decoder.decode(
+          frame -> {
+            final ByteBuffer bytes = ByteBuffer.wrap(frame.yuv());
+            try {
+              while (bytes.hasRemaining()) {
+                output.write(bytes);
+              }
+            } catch (IOException e) {
+              throw new RuntimeException(
+                  String.format("Error writing decoded frame: %s", e.getMessage()));
+            }
+          });
+    }
+    log.info(String.format("Exported %s to %s", args[0], args[4]));
+  }
+
+  /** A keyframe-aligned range of the video and the reorder buffer holding its frames. */
+  @RequiredArgsConstructor
+  private static class Segment {
+
+    private final long start; // First timestamp of the range, inclusive
+
+    private final long end; // Last timestamp of the range, exclusive
+
+    private final BlockingQueue<DecodedFrameDto> frames =
+        new ArrayBlockingQueue<>(SEGMENT_QUEUE_CAPACITY);
+  }
+}
@@ -2,6 +2,8 @@ package com.faustech.gpu;
 
 import com.faustech.dto.RenderDataDto;
 import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.MemoryException;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import lombok.extern.java.Log;
 import org.lwjgl.opengl.GL46;
@@ -16,8 +18,12 @@ public abstract class RenderData extends Thread {
 
   protected final int numVertices = bufferSize / 8; // Number of vertices to draw
 
+  protected final int yuvBufferSize = FrameBuffer.getYuvBufferSize(); // Size of a YUV420 frame
+
   protected int vao, vbo, textureId; // OpenGL object identifiers
 
+  protected int[] yuvTextureIds; // Texture identifiers for the Y, U and V planes
+
   protected int[] pboIds; // Array of Pixel Buffer Object identifiers
 
   protected int nextPboIndex = 0; // Index of the next PBO to use
@@ -41,10 +47,22 @@ public abstract class RenderData extends Thread {
     GL46.glPixelStorei(GL46.GL_UNPACK_ALIGNMENT, 4);
     setupTexture();
     setupVAOAndVBO();
-    setupPBOs();
+    setupPBOs(bufferSize);
     GL46.glPointSize(4.0f);
   }
 
+  /**
+   * Sets up the planar YUV420 path: one single-channel texture per plane, a full-screen quad and
+   * PBOs sized for a whole YUV frame.
+   */
+  protected void setupYuv() {
+
+    GL46.glPixelStorei(GL46.GL_UNPACK_ALIGNMENT, 1); // Chroma rows are not 4-byte aligned
+    setupYuvTextures();
+    setupQuad();
+    setupPBOs(yuvBufferSize);
+  }
+
   /** Initializes the texture settings and allocates texture memory. */
   private void setupTexture() {
 
@@ -66,6 +84,71 @@ public abstract class RenderData extends Thread {
         (FloatBuffer) null);
   }
 
+  /** Initializes one single-channel texture for each of the Y, U and V planes. */
+  private void setupYuvTextures() {
+
+    yuvTextureIds = new int[3];
+    GL46.glGenTextures(yuvTextureIds);
+    for (int i = 0; i < yuvTextureIds.length; i++) {
+      GL46.glBindTexture(GL46.GL_TEXTURE_2D, yuvTextureIds[i]);
+      GL46.glTexParameteri(GL46.GL_TEXTURE_2D, GL46.GL_TEXTURE_WRAP_S, GL46.GL_CLAMP_TO_EDGE);
+      GL46.glTexParameteri(GL46.GL_TEXTURE_2D, GL46.GL_TEXTURE_WRAP_T, GL46.GL_CLAMP_TO_EDGE);
+      GL46.glTexParameteri(GL46.GL_TEXTURE_2D, GL46.GL_TEXTURE_MIN_FILTER, GL46.GL_NEAREST);
+      GL46.glTexParameteri(GL46.GL_TEXTURE_2D, GL46.GL_TEXTURE_MAG_FILTER, GL46.GL_NEAREST);
+      GL46.glTexImage2D(
+          GL46.GL_TEXTURE_2D,
+          0,
+          GL46.GL_R8,
+          planeWidth(i),
+          planeHeight(i),
+          0,
+          GL46.GL_RED,
+          GL46.GL_UNSIGNED_BYTE,
+          (ByteBuffer) null);
+    }
+  }
+
+  /** Sets up a static full-screen quad with interleaved position and texture coordinates. */
+  private void setupQuad() {
+
+    vao = GL46.glGenVertexArrays();
+    GL46.glBindVertexArray(vao);
+    vbo = GL46.glGenBuffers();
+    GL46.glBindBuffer(GL46.GL_ARRAY_BUFFER, vbo);
+    GL46.glBufferData(
+        GL46.GL_ARRAY_BUFFER,
+        new float[] {-1, 1, 0, 0, -1, -1, 0, 1, 1, 1, 1, 0, 1, -1, 1, 1},
+        GL46.GL_STATIC_DRAW);
+
+    int stride = 4 * Float.BYTES;
+    GL46.glVertexAttribPointer(0, 2, GL46.GL_FLOAT, false, stride, 0);
+    GL46.glEnableVertexAttribArray(0);
+    GL46.glVertexAttribPointer(1, 2, GL46.GL_FLOAT, false, stride, 2 * Float.BYTES);
+    GL46.glEnableVertexAttribArray(1);
+  }
+
+  /**
+   * Returns the width of a YUV420 plane.
+   *
+   * @param plane The plane index (0 for Y, 1 for U, 2 for V).
+   * @return The plane width in pixels.
+   */
+  private int planeWidth(int plane) {
+
+    return plane == 0 ? width : width / 2;
+  }
+
+  /**
+   * Returns the height of a YUV420 plane.
+   *
+   * @param plane The plane index (0 for Y, 1 for U, 2 for V).
+   * @return The plane height in pixels.
+   */
+  private int planeHeight(int plane) {
+
+    return plane == 0 ? height : height / 2;
+  }
+
   /** Sets up the Vertex Array Object (VAO) and Vertex Buffer Object (VBO). */
   private void setupVAOAndVBO() {
 
@@ -83,15 +166,19 @@ public abstract class RenderData extends Thread {
     GL46.glEnableVertexAttribArray(2);
   }
 
-  /** Sets up the Pixel Buffer Objects (PBOs) for efficient texture streaming. */
-  private void setupPBOs() {
+  /**
+   * Sets up the Pixel Buffer Objects (PBOs) for efficient texture streaming.
+   *
+   * @param size the size in bytes of each PBO
+   */
+  private void setupPBOs(final int size) {
 
     int pboCount = 2;
     pboIds = new int[pboCount];
     GL46.glGenBuffers(pboIds);
     for (int i = 0; i < pboCount; i++) {
       GL46.glBindBuffer(GL46.GL_PIXEL_UNPACK_BUFFER, pboIds[i]);
-      GL46.glBufferData(GL46.GL_PIXEL_UNPACK_BUFFER, bufferSize, GL46.GL_STREAM_DRAW);
+      GL46.glBufferData(GL46.GL_PIXEL_UNPACK_BUFFER, size, GL46.GL_STREAM_DRAW);
     }
   }
 
@@ -121,6 +208,61 @@ public abstract class RenderData extends Thread {
     GL46.glDrawArrays(GL46.GL_POINTS, 0, numVertices);
   }
 
+  /**
+   * Streams the front YUV420 frame into the plane textures through a mapped PBO and draws the quad.
+   * If the PBO cannot be mapped, or its contents were lost before it was unmapped, the textures are
+   * not updated and the previous frame is drawn again.
+   *
+   * @param frameBuffer the framebuffer holding the planar frame
+   * @throws MemoryException if the frame does not fit the mapped buffer
+   */
+  protected void drawYuv(final FrameBuffer frameBuffer) throws MemoryException {
+
+    int pboId = pboIds[nextPboIndex];
+    nextPboIndex = (nextPboIndex + 1) % pboIds.length;
+
+    GL46.glBindBuffer(GL46.GL_PIXEL_UNPACK_BUFFER, pboId);
+    GL46.glBufferData(GL46.GL_PIXEL_UNPACK_BUFFER, yuvBufferSize, GL46.GL_STREAM_DRAW);
+    ByteBuffer mapped =
+        GL46.glMapBufferRange(
+            GL46.GL_PIXEL_UNPACK_BUFFER,
+            0,
+            yuvBufferSize,
+            GL46.GL_MAP_WRITE_BIT | GL46.GL_MAP_INVALIDATE_BUFFER_BIT);
+    boolean filled = false;
+    if (mapped != null) {
+      try {
+        frameBuffer.readFromYuvBuffer(mapped);
+      } finally {
+        filled = GL46.glUnmapBuffer(GL46.GL_PIXEL_UNPACK_BUFFER); // false if the store was lost
+      }
+    }
+
+    // Uploading from an unfilled PBO would show undefined bytes
+    if (filled) {
+      long offset = 0;
+      for (int i = 0; i < yuvTextureIds.length; i++) {
+        GL46.glActiveTexture(GL46.GL_TEXTURE0 + i);
+        GL46.glBindTexture(GL46.GL_TEXTURE_2D, yuvTextureIds[i]);
+        GL46.glTexSubImage2D(
+            GL46.GL_TEXTURE_2D,
+            0,
+            0,
+            0,
+            planeWidth(i),
+            planeHeight(i),
+            GL46.GL_RED,
+            GL46.GL_UNSIGNED_BYTE,
+            offset);
+        offset += (long) planeWidth(i) * planeHeight(i);
+      }
+    }
+    GL46.glBindBuffer(GL46.GL_PIXEL_UNPACK_BUFFER, 0);
+
+    GL46.glBindVertexArray(vao);
+    GL46.glDrawArrays(GL46.GL_TRIANGLE_STRIP, 0, 4);
+  }
+
   /**
    * Cleans up resources upon shutdown, ensuring graceful termination of GLFW and other components.
    */
@@ -128,6 +270,9 @@ public abstract class RenderData extends Thread {
     GL46.glDeleteBuffers(vbo);
     GL46.glDeleteVertexArrays(vao);
     GL46.glDeleteTextures(textureId);
+    if (yuvTextureIds != null) {
+      GL46.glDeleteTextures(yuvTextureIds);
+    }
     GL46.glDeleteBuffers(pboIds);
   }
 }
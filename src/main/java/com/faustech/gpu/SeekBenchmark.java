@@ -0,0 +1,98 @@
+package com.faustech.gpu;
+
+import com.faustech.metrics.LatencyRecorder;
+import java.util.Random;
+import lombok.extern.java.Log;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+
+/**
+ * Measures seek latency on a video: positioning through the keyframe index against FFmpeg's own
+ * search, each followed by decoding the frame shown. Both runs seek to the same random targets.
+ *
+ * <pre>
+ * java -cp ... com.faustech.gpu.SeekBenchmark video.mp4 200
+ * </pre>
+ */
+@Log
+public class SeekBenchmark {
+
+  private static final long SEED = 42; // Same targets on every run
+
+  private static final int WARM_UP_SEEKS = 10; // Seeks before measuring, to fill the caches
+
+  /**
+   * Runs the benchmark and logs the seek latency percentiles with and without the index.
+   *
+   * @param args The video file and optionally the number of measured seeks.
+   * @throws FrameGrabber.Exception If the video cannot be opened, sought or decoded.
+   */
+  public static void main(String[] args) throws FrameGrabber.Exception {
+
+    if (args.length < 1) {
+      log.severe("Usage: SeekBenchmark <video> [seeks]");
+      return;
+    }
+    final String video = args[0];
+    final int seeks = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+    final long start = System.nanoTime();
+    final KeyframeIndex index = KeyframeIndex.load(video);
+    log.info(
+        String.format(
+            "Seek benchmark: %s, %d keyframes over %.1f s, index loaded in %.1f ms",
+            video,
+            index.size(),
+            index.getDuration() / 1e6,
+            (System.nanoTime() - start) / 1e6));
+
+    final LatencyRecorder indexed = measure(video, index, seeks);
+    final LatencyRecorder searched = measure(video, null, seeks);
+
+    log.info(String.format("Indexed:  %s", indexed));
+    log.info(String.format("Searched: %s", searched));
+    log.info(
+        String.format(
+            "Indexed seeks run %.2fx faster at p50 and %.2fx at p99",
+            searched.getPercentileNanos(50) / (double) indexed.getPercentileNanos(50),
+            searched.getPercentileNanos(99) / (double) indexed.getPercentileNanos(99)));
+  }
+
+  /**
+   * Times seeks to random targets, each until the frame shown there is decoded.
+   *
+   * @param video The video file.
+   * @param index The keyframe index, or null to let FFmpeg search.
+   * @param seeks The number of measured seeks.
+   * @return The recorded seek times.
+   * @throws FrameGrabber.Exception If the video cannot be opened, sought or decoded.
+   */
+  private static LatencyRecorder measure(
+      final String video, final KeyframeIndex index, final int seeks)
+      throws FrameGrabber.Exception {
+
+    try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+      grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P); // As on the producer's YUV path
+      grabber.start();
+      final double frameRate = grabber.getFrameRate() > 0 ? grabber.getFrameRate() : 30;
+      final long duration = Math.max(1, grabber.getLengthInTime());
+
+      final Random random = new Random(SEED);
+      final LatencyRecorder times = new LatencyRecorder(seeks);
+      long lastGrabbed = -1;
+      for (int i = 0; i < WARM_UP_SEEKS + seeks; i++) {
+        final long target = (long) (random.nextDouble() * duration);
+        final long seekStart = System.nanoTime();
+        VideoFrameToVertexArray.positionAt(grabber, index, target, lastGrabbed, frameRate);
+        final Frame frame = grabber.grabImage();
+        if (i >= WARM_UP_SEEKS) {
+          times.record(System.nanoTime() - seekStart);
+        }
+        lastGrabbed = frame != null ? frame.timestamp : -1;
+      }
+      return times;
+    }
+  }
+}
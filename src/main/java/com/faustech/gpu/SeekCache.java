@@ -0,0 +1,126 @@
+package com.faustech.gpu;
+
+import java.nio.Buffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Keeps copies of the frames decoded right after recent seeks, so seeking back to the same spot is
+ * displayed without touching the decoder. The cache is bounded by the bytes of its frames, since a
+ * single full-resolution frame can take tens of megabytes. Used by the producer thread only.
+ */
+public class SeekCache {
+
+  private final long capacityBytes; // Maximum size of the cached frames, 0 disables the cache
+
+  private final TreeMap<Long, Frame> frames = new TreeMap<>(); // Cached frames by timestamp
+
+  private final ArrayDeque<Long> order = new ArrayDeque<>(); // Timestamps, oldest first
+
+  private long sizeBytes; // Size of the cached frames
+
+  /**
+   * Constructs a cache.
+   *
+   * @param capacityBytes The maximum size of the cached frames in bytes; 0 disables the cache.
+   */
+  public SeekCache(final long capacityBytes) {
+
+    this.capacityBytes = capacityBytes;
+  }
+
+  /**
+   * Computes the memory a copy of a frame takes.
+   *
+   * @param frame The frame.
+   * @return The size of its image planes in bytes.
+   */
+  public static long sizeOf(final Frame frame) {
+
+    long bytes = 0;
+    for (Buffer plane : frame.image) {
+      bytes += (long) plane.capacity() * Frame.pixelSize(frame.imageDepth);
+    }
+    return bytes;
+  }
+
+  /**
+   * Caches a copy of a frame, evicting the oldest ones until it fits. A frame larger than the whole
+   * cache is not cached.
+   *
+   * @param frame The frame, which the grabber may reuse afterwards.
+   */
+  public void put(final Frame frame) {
+
+    final long frameBytes = sizeOf(frame);
+    if (frameBytes > capacityBytes || frames.containsKey(frame.timestamp)) {
+      return;
+    }
+    while (sizeBytes + frameBytes > capacityBytes) {
+      final Frame evicted = frames.remove(order.removeFirst());
+      sizeBytes -= sizeOf(evicted);
+      evicted.close();
+    }
+    final Frame copy = copyOf(frame);
+    frames.put(frame.timestamp, copy);
+    order.addLast(frame.timestamp);
+    sizeBytes += sizeOf(copy);
+  }
+
+  /**
+   * Copies every plane of a frame. Decoders limit planar YUV frames to their luma plane, and a
+   * clone only keeps the limited part, so the planes are opened up to their capacity while copying.
+   *
+   * @param frame The frame to copy.
+   * @return The copy.
+   */
+  private static Frame copyOf(final Frame frame) {
+
+    final int[] limits = new int[frame.image.length];
+    for (int i = 0; i < limits.length; i++) {
+      limits[i] = frame.image[i].limit();
+      frame.image[i].limit(frame.image[i].capacity());
+    }
+    try {
+      return frame.clone();
+    } finally {
+      for (int i = 0; i < limits.length; i++) {
+        frame.image[i].limit(limits[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the memory held by the cache.
+   *
+   * @return The size of the cached frames in bytes.
+   */
+  public long getSizeBytes() {
+
+    return sizeBytes;
+  }
+
+  /**
+   * Finds the cached frame shown at a timestamp.
+   *
+   * @param timestamp The timestamp in microseconds.
+   * @param frameInterval The duration of one frame in microseconds.
+   * @return The last cached frame at or before the timestamp within one frame, or null.
+   */
+  public Frame get(final long timestamp, final long frameInterval) {
+
+    final Map.Entry<Long, Frame> entry = frames.floorEntry(timestamp);
+    return entry != null && timestamp - entry.getKey() < frameInterval ? entry.getValue() : null;
+  }
+
+  /** Releases every cached frame. */
+  public void clear() {
+
+    frames.values().forEach(Frame::close);
+    frames.clear();
+    order.clear();
+    sizeBytes = 0;
+  }
+}
@@ -44,6 +44,73 @@ public class ShaderProgram {
                      }
                 """);
 
+    linkProgram(vertexShader, fragmentShader);
+  }
+
+  /**
+   * Loads the planar YUV420 shader variant, which samples the Y, U and V planes from separate
+   * single-channel textures and converts them to RGB on the GPU.
+   *
+   * @param colorSpace The color space used to convert the YUV samples.
+   */
+  public void loadYuvShaders(final ColorSpace colorSpace) {
+    // Compile the vertex shader for a full-screen quad
+    int vertexShader =
+        compileShader(
+            GL46.GL_VERTEX_SHADER,
+            """
+                   #version 460
+                     layout (location = 0) in vec2 vertexPosition;
+                     layout (location = 1) in vec2 texCoord;
+                     out vec2 TexCoord;
+                     void main() {
+                         gl_Position = vec4(vertexPosition, 0.0, 1.0);
+                         TexCoord = texCoord;
+                     }
+                """);
+
+    // Compile the fragment shader, mirrored on the CPU by YuvToRgbConverter
+    int fragmentShader =
+        compileShader(
+            GL46.GL_FRAGMENT_SHADER,
+            """
+                    #version 460
+                     in vec2 TexCoord;
+                     out vec4 FragColor;
+                     uniform sampler2D yTexture;
+                     uniform sampler2D uTexture;
+                     uniform sampler2D vTexture;
+                     uniform mat3 colorMatrix;
+                     uniform vec3 colorOffset;
+                     void main() {
+                         vec3 yuv = vec3(
+                             texture(yTexture, TexCoord).r,
+                             texture(uTexture, TexCoord).r,
+                             texture(vTexture, TexCoord).r);
+                         vec3 rgb = clamp(colorMatrix * (yuv - colorOffset), 0.0, 1.0);
+                         FragColor = vec4(rgb, 1.0);
+                     }
+                """);
+
+    linkProgram(vertexShader, fragmentShader);
+
+    // Bind the plane samplers to texture units and upload the conversion constants
+    use();
+    GL46.glUniform1i(GL46.glGetUniformLocation(programId, "yTexture"), 0);
+    GL46.glUniform1i(GL46.glGetUniformLocation(programId, "uTexture"), 1);
+    GL46.glUniform1i(GL46.glGetUniformLocation(programId, "vTexture"), 2);
+    GL46.glUniformMatrix3fv(
+        GL46.glGetUniformLocation(programId, "colorMatrix"), true, colorSpace.getMatrix());
+    GL46.glUniform3fv(GL46.glGetUniformLocation(programId, "colorOffset"), colorSpace.getOffset());
+  }
+
+  /**
+   * Links the compiled shaders into the program and releases them.
+   *
+   * @param vertexShader The compiled vertex shader identifier.
+   * @param fragmentShader The compiled fragment shader identifier.
+   */
+  private void linkProgram(int vertexShader, int fragmentShader) {
     // Create the shader program and attach the compiled shaders
     programId = GL46.glCreateProgram();
     GL46.glAttachShader(programId, vertexShader);
@@ -0,0 +1,149 @@
+package com.faustech.gpu;
+
+import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.SharedFrameRing;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+
+/**
+ * This thread feeds the frame buffer with planar YUV420 frames published by another process through
+ * a {@link SharedFrameRing}, surviving producer crashes and restarts.
+ *
+ * <p>The transport is not zero-copy end to end: each frame is copied from the mapping into the back
+ * YUV buffer, where the seqlock is validated, and the renderer later copies the front buffer into
+ * its pixel buffer object. Keeping the frame buffer as the hand-off means the render thread never
+ * retries torn reads and presents at its own pace.
+ */
+@Log
+@RequiredArgsConstructor
+public class SharedFrameSource extends Thread {
+
+  private static final long RETRY_INTERVAL_MS = 100; // Delay between attempts to attach
+
+  private static final long POLL_INTERVAL_NS = TimeUnit.MICROSECONDS.toNanos(200);
+
+  private static final long STALE_TIMEOUT_MS = 1000; // Heartbeat age before the file is re-checked
+
+  private final Path ringPath; // Path to the ring file
+
+  private final FrameBuffer frameBuffer; // Frame buffer to write the received frames
+
+  private Object rejectedFileKey; // Ring file whose frames do not fit, skipped until replaced
+
+  private boolean firstFrameWritten; // Keeps the timeline lock out of the copy loop
+
+  /** Entry point for the thread; attaches to the ring and consumes frames until interrupted. */
+  @Override
+  public void run() {
+
+    ThreadPlacement.pinCurrentThread(PipelineRole.DECODE);
+    while (!isInterrupted()) {
+      try (SharedFrameRing ring = awaitRing()) {
+        if (ring == null) {
+          return;
+        }
+        consume(ring);
+      } catch (IOException e) {
+        log.warning(String.format("Error attaching to frame ring: %s", e.getMessage()));
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVAL_MS));
+      }
+    }
+  }
+
+  /**
+   * Waits until a producer has created and initialized a ring file whose frames fit the frame
+   * buffer. A ring with other frame sizes is skipped until its producer replaces the file.
+   *
+   * @return The attached ring, or null if the thread was interrupted while waiting.
+   * @throws IOException If the ring file cannot be mapped.
+   */
+  private SharedFrameRing awaitRing() throws IOException {
+
+    while (!isInterrupted()) {
+      if (Files.exists(ringPath)
+          && (rejectedFileKey == null
+              || !rejectedFileKey.equals(SharedFrameRing.fileKey(ringPath)))) {
+        final SharedFrameRing ring = SharedFrameRing.open(ringPath);
+        if (ring != null) {
+          if (ring.getFrameSize() == FrameBuffer.getYuvBufferSize()) {
+            log.info(String.format("Attached to frame ring %s", ringPath));
+            StartupTimeline.record(StartupEvent.DECODER_OPENED);
+            return ring;
+          }
+          log.warning(
+              String.format(
+                  "Shared frame size %d does not match the frame buffer (%d), "
+                      + "waiting for the producer to replace %s",
+                  ring.getFrameSize(), FrameBuffer.getYuvBufferSize(), ringPath));
+          rejectedFileKey = ring.getFileKey();
+          ring.close();
+        }
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVAL_MS));
+    }
+    return null;
+  }
+
+  /**
+   * Copies every newly published frame into the frame buffer until the ring file is replaced or the
+   * thread is interrupted. Once the producer's heartbeat is older than {@link #STALE_TIMEOUT_MS},
+   * the file is checked for a replacement at the same interval.
+   *
+   * @param ring The attached ring.
+   * @throws IOException If the ring file cannot be inspected.
+   */
+  private void consume(final SharedFrameRing ring) throws IOException {
+
+    long lastSequence = -1;
+    long epoch = ring.getEpoch();
+    long lastCheck = System.currentTimeMillis(); // Time the file was last checked for a swap
+    boolean stalled = false; // Whether the stalled producer was already reported
+
+    while (!isInterrupted()) {
+      final long currentEpoch = ring.getEpoch();
+      if (currentEpoch != epoch) {
+        log.info(String.format("Frame producer restarted (epoch %d)", currentEpoch));
+        epoch = currentEpoch;
+      }
+
+      final long sequence = ring.getPublishedSequence();
+      if (sequence > lastSequence && ring.readFrame(sequence, frameBuffer)) {
+        if (!firstFrameWritten) {
+          // Recorded before the swap, so the renderer cannot present the frame first
+          StartupTimeline.record(StartupEvent.FIRST_FRAME_WRITTEN);
+          firstFrameWritten = true;
+        }
+        frameBuffer.swap();
+        lastSequence = sequence;
+        stalled = false;
+        continue;
+      }
+
+      final long now = System.currentTimeMillis();
+      if (now - ring.getHeartbeat() > STALE_TIMEOUT_MS && now - lastCheck > STALE_TIMEOUT_MS) {
+        // A producer that failed to reuse the file replaces it; follow it to the new one
+        if (!Files.exists(ringPath)
+            || !Objects.equals(SharedFrameRing.fileKey(ringPath), ring.getFileKey())) {
+          log.info(String.format("Frame ring %s was replaced, reattaching", ringPath));
+          return;
+        }
+        if (!stalled) {
+          log.warning(
+              String.format(
+                  "Frame producer silent for %d ms (epoch %d)", now - ring.getHeartbeat(), epoch));
+          stalled = true;
+        }
+        lastCheck = now;
+      }
+      LockSupport.parkNanos(POLL_INTERVAL_NS);
+    }
+  }
+}
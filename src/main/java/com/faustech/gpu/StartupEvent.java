@@ -0,0 +1,9 @@
+package com.faustech.gpu;
+
+/** Milestones on the way to the first presented frame, in the order they usually happen. */
+public enum StartupEvent {
+  DECODER_OPENED, // The frame source is open and ready to decode
+  FIRST_FRAME_WRITTEN, // The first frame was written into the frame buffer, ready to be swapped
+  RENDERER_READY, // The window, context and shaders are set up
+  FIRST_FRAME_PRESENTED // The first frame with content reached the screen
+}
@@ -0,0 +1,90 @@
+package com.faustech.gpu;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.java.Log;
+
+/**
+ * Records when each {@link StartupEvent} first happened, relative to {@link #start()}. It has no
+ * rendering dependencies, so time-to-first-frame can be measured headless.
+ */
+@Log
+public final class StartupTimeline {
+
+  private static final Map<StartupEvent, Long> events = new EnumMap<>(StartupEvent.class);
+
+  private static long startNanos = System.nanoTime(); // Origin of the timeline
+
+  private StartupTimeline() {}
+
+  /** Restarts the timeline, forgetting every recorded event. */
+  public static synchronized void start() {
+
+    events.clear();
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * Records an event if it was not recorded yet; the time-to-first-frame is logged once the first
+   * frame is presented.
+   *
+   * @param event The event that just happened.
+   */
+  public static synchronized void record(final StartupEvent event) {
+
+    if (events.putIfAbsent(event, System.nanoTime() - startNanos) == null
+        && event == StartupEvent.FIRST_FRAME_PRESENTED) {
+      log.info(String.format("Startup: %s", getReport()));
+    }
+  }
+
+  /**
+   * Checks whether an event was recorded.
+   *
+   * @param event The event to check.
+   * @return true if the event happened.
+   */
+  public static synchronized boolean hasHappened(final StartupEvent event) {
+
+    return events.containsKey(event);
+  }
+
+  /**
+   * Returns when an event happened.
+   *
+   * @param event The event to look up.
+   * @return The time since the start in nanoseconds, or -1 if the event has not happened.
+   */
+  public static synchronized long getElapsedNanos(final StartupEvent event) {
+
+    return events.getOrDefault(event, -1L);
+  }
+
+  /**
+   * Returns the time-to-first-frame.
+   *
+   * @return The time until the first frame was presented in nanoseconds, or -1 if not yet.
+   */
+  public static long getTimeToFirstFrameNanos() {
+
+    return getElapsedNanos(StartupEvent.FIRST_FRAME_PRESENTED);
+  }
+
+  /**
+   * Describes every recorded event.
+   *
+   * @return The events and their times in milliseconds.
+   */
+  public static synchronized String getReport() {
+
+    final StringJoiner report = new StringJoiner(", ");
+    events.forEach(
+        (event, nanos) ->
+            report.add(
+                String.format(
+                    "%s=%d ms", event.name().toLowerCase(), TimeUnit.NANOSECONDS.toMillis(nanos))));
+    return report.toString();
+  }
+}
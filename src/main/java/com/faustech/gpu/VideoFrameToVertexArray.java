@@ -1,13 +1,24 @@
 package com.faustech.gpu;
 
+import com.faustech.effect.FusedEffectPass;
 import com.faustech.memory.FrameBuffer;
 import com.faustech.memory.MemoryException;
+import com.faustech.metrics.LatencyRecorder;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
+import org.bytedeco.ffmpeg.global.avutil;
 import org.bytedeco.javacv.FFmpegFrameGrabber;
 import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
 import org.bytedeco.javacv.Java2DFrameConverter;
 
 /** This thread processes a video file, converting frames to vertex arrays for rendering. */
@@ -15,6 +26,16 @@ import org.bytedeco.javacv.Java2DFrameConverter;
 @RequiredArgsConstructor // Lombok generates a constructor for all final fields
 public class VideoFrameToVertexArray extends Thread {
 
+  private static final int WARM_UP_ITERATIONS = 30; // Upper bound on start-up conversion warm-up
+
+  private static final String SEEK_CACHE_PROPERTY = "seekCacheMb"; // Seek cache budget, 0 is off
+
+  private static final int WARM_FRAMES_PER_SEEK = 8; // Frames cached after each seek target
+
+  private static final int SEEK_LATENCY_WINDOW = 256; // Recent seeks kept for percentiles
+
+  private static final long DEFAULT_FRAME_INTERVAL = 1_000_000 / 30; // When the rate is unknown
+
   private final String videoFilePath; // Path to the video file
 
   private final Java2DFrameConverter converter =
@@ -26,6 +47,48 @@ public class VideoFrameToVertexArray extends Thread {
 
   private final FrameBuffer frameBuffer; // Frame buffer to write the converted frames
 
+  private final ColorSpace colorSpace; // Keeps frames in planar YUV420 when set, RGBA when null
+
+  private final FusedEffectPass effectPass; // Post-processing fused into the RGBA write, or null
+
+  private final AtomicReference<SeekRequest> pendingSeek = new AtomicReference<>();
+
+  private final AtomicBoolean indexing = new AtomicBoolean(); // Set once indexing was started
+
+  private final SeekCache seekCache = // Frames near seek targets
+      new SeekCache(Long.getLong(SEEK_CACHE_PROPERTY, 0) * 1024 * 1024);
+
+  @Getter private final LatencyRecorder seekLatency = new LatencyRecorder(SEEK_LATENCY_WINDOW);
+
+  @Getter private volatile long duration; // Length of the video in microseconds, 0 until opened
+
+  @Getter private volatile long position; // Timestamp of the frame last swapped to the front
+
+  private volatile KeyframeIndex keyframeIndex; // Loaded in the background, null until ready
+
+  private long seekRequestedNanos = -1; // Request time of a seek whose frame is not swapped yet
+
+  private int warmFramesLeft; // Frames still to cache after the last seek
+
+  private boolean firstFrameWritten; // Survives the restart of each loop through the video
+
+  /**
+   * Constructs a video processor that writes RGBA frames.
+   *
+   * @param videoFilePath Path to the video file.
+   * @param width Width of the target rendering.
+   * @param height Height of the target rendering.
+   * @param frameBuffer Frame buffer to write the converted frames.
+   */
+  public VideoFrameToVertexArray(
+      final String videoFilePath,
+      final int width,
+      final int height,
+      final FrameBuffer frameBuffer) {
+
+    this(videoFilePath, width, height, frameBuffer, null, null);
+  }
+
   /**
    * Resizes a BufferedImage to the specified dimensions.
    *
@@ -45,24 +108,102 @@ public class VideoFrameToVertexArray extends Thread {
     return resizedImage;
   }
 
+  /**
+   * Requests a jump to a position in the video. The producer thread performs it before its next
+   * frame; a request not yet performed is replaced by a newer one. The first request starts
+   * indexing the keyframes in the background, so playback without seeking never pays for it.
+   *
+   * @param timestamp The position in microseconds.
+   */
+  public void seek(final long timestamp) {
+
+    pendingSeek.set(new SeekRequest(timestamp, System.nanoTime()));
+    if (indexing.compareAndSet(false, true)) {
+      startIndexing();
+    }
+  }
+
   /** Entry point for the thread; begins the video processing. */
   @Override
   public void run() {
 
-    this.processVideo();
+    ThreadPlacement.pinCurrentThread(PipelineRole.DECODE);
+    try {
+      this.processVideo();
+    } finally {
+      seekCache.clear();
+    }
+  }
+
+  /**
+   * Loads or builds the keyframe index on a background thread. Seeks fall back to FFmpeg's own
+   * search until it is ready.
+   */
+  private void startIndexing() {
+
+    final Thread indexer =
+        new Thread(
+            () -> {
+              ThreadPlacement.pinCurrentThreadToNode(PipelineRole.DECODE);
+              try {
+                keyframeIndex = KeyframeIndex.load(videoFilePath);
+              } catch (RuntimeException e) {
+                log.warning(String.format("Seeking without keyframe index: %s", e.getMessage()));
+              }
+            },
+            "keyframe-index");
+    indexer.setDaemon(true);
+    indexer.start();
   }
 
   /** Processes each frame of the video, converting and writing to the frame buffer. */
   private void processVideo() {
 
     try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFilePath)) {
+      if (colorSpace != null) {
+        // Let FFmpeg scale straight into planar YUV420, skipping the RGB conversion
+        grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        grabber.setImageWidth(width);
+        grabber.setImageHeight(height);
+      }
       grabber.start();
+      duration = grabber.getLengthInTime();
+      StartupTimeline.record(StartupEvent.DECODER_OPENED);
       Frame frame;
+      long lastGrabbed = -1; // Timestamp of the frame grabbed last, -1 before the first
 
-      while ((frame = grabber.grabImage()) != null) {
+      while (true) {
+        final SeekRequest request = pendingSeek.getAndSet(null);
+        if (request != null) {
+          seekTo(grabber, request, lastGrabbed);
+        }
+        if ((frame = grabber.grabImage()) == null) {
+          break;
+        }
+        lastGrabbed = frame.timestamp;
         long time = System.currentTimeMillis();
 
-        processFrameAndWriteInBuffer(frame);
+        writeFrameInBuffer(frame);
+        if (!firstFrameWritten) {
+          // Recorded before the swap, so the renderer cannot present the frame first
+          StartupTimeline.record(StartupEvent.FIRST_FRAME_WRITTEN);
+        }
+        frameBuffer.swap();
+        position = frame.timestamp;
+
+        if (seekRequestedNanos >= 0) {
+          seekLatency.record(System.nanoTime() - seekRequestedNanos);
+          seekRequestedNanos = -1;
+        }
+        if (warmFramesLeft > 0) {
+          seekCache.put(frame);
+          warmFramesLeft--;
+        }
+
+        if (!firstFrameWritten) {
+          firstFrameWritten = true;
+          warmUp(frame);
+        }
 
         time = System.currentTimeMillis() - time;
         long sleepTime =
@@ -76,43 +217,238 @@ public class VideoFrameToVertexArray extends Thread {
       }
       grabber.stop();
       this.processVideo(); // Restart video processing to loop continuously
+    } catch (InterruptedException e) {
+      // The frame being written is incomplete and was not swapped
+      log.info("Video processing interrupted");
+      interrupt();
     } catch (Exception e) {
       throw new RuntimeException(String.format("Error processing video: %s", e.getMessage()));
     }
   }
 
   /**
-   * Processes a single frame, resizing and mapping it into the frame buffer.
+   * Displays a frame cached by an earlier seek to the same spot right away, then positions the
+   * grabber on the frame shown at the requested position, which the loop grabs next.
+   *
+   * @param grabber The grabber to reposition.
+   * @param request The seek to perform.
+   * @param lastGrabbed The timestamp of the frame grabbed last, or -1 if none was.
+   * @throws FrameGrabber.Exception If the grabber cannot seek or decode.
+   * @throws MemoryException If there's an issue writing to the frame buffer.
+   * @throws InterruptedException If the thread is interrupted while effects are applied.
+   */
+  private void seekTo(FFmpegFrameGrabber grabber, SeekRequest request, long lastGrabbed)
+      throws FrameGrabber.Exception, MemoryException, InterruptedException {
+
+    final double frameRate = grabber.getFrameRate();
+    final long frameInterval =
+        frameRate > 0 ? Math.max(1, Math.round(1_000_000 / frameRate)) : DEFAULT_FRAME_INTERVAL;
+
+    final Frame cached = seekCache.get(request.timestamp(), frameInterval);
+    if (cached != null) {
+      writeFrameInBuffer(cached);
+      frameBuffer.swap();
+      position = cached.timestamp;
+      seekLatency.record(System.nanoTime() - request.requestedNanos());
+      seekRequestedNanos = -1;
+    } else {
+      seekRequestedNanos = request.requestedNanos();
+    }
+
+    positionAt(
+        grabber,
+        keyframeIndex,
+        request.timestamp(),
+        lastGrabbed,
+        frameRate > 0 ? frameRate : 1e6 / DEFAULT_FRAME_INTERVAL);
+    warmFramesLeft = WARM_FRAMES_PER_SEEK;
+  }
+
+  /**
+   * Positions a grabber so that the next frame it returns is the one shown at a timestamp.
+   *
+   * <p>Without an index this is FFmpeg's own search, which seeks, decodes frames to find out where
+   * it landed, may seek again, and then decodes forward to a frame near the target; it is only as
+   * accurate as that search. With an index the keyframe is known up front: when the target lies
+   * ahead within the group of pictures being played, the grabber only decodes forward and no seek
+   * happens at all; otherwise it jumps straight to the indexed keyframe without checking where it
+   * landed. Either way the frames before the target are counted off from the frame rate and
+   * decoded without pixel conversion, which assumes a constant frame rate.
+   *
+   * @param grabber The grabber to reposition.
+   * @param index The keyframe index, or null to let FFmpeg search.
+   * @param timestamp The requested position in microseconds.
+   * @param lastGrabbed The timestamp of the frame grabbed last, or -1 if none was.
+   * @param frameRate The frame rate of the video.
+   * @throws FrameGrabber.Exception If the grabber cannot seek or decode.
+   */
+  static void positionAt(
+      final FFmpegFrameGrabber grabber,
+      final KeyframeIndex index,
+      final long timestamp,
+      final long lastGrabbed,
+      final double frameRate)
+      throws FrameGrabber.Exception {
+
+    if (index == null || index.size() == 0) {
+      grabber.setTimestamp(timestamp);
+      return;
+    }
+
+    final int keyframe = index.floorIndex(timestamp);
+    final long skipped; // Frames to decode and drop before the target
+    if (lastGrabbed >= 0 && lastGrabbed < timestamp && index.floorIndex(lastGrabbed) == keyframe) {
+      skipped = framesBetween(lastGrabbed, timestamp, frameRate) - 1;
+    } else {
+      final long keyframeTimestamp = index.getTimestamp(keyframe);
+      grabber.setTimestamp(keyframeTimestamp, false); // Seek only, no frame checks
+      skipped = framesBetween(keyframeTimestamp, timestamp, frameRate);
+    }
+
+    for (long i = 0; i < skipped; i++) {
+      if (grabber.grabFrame(false, true, false, false) == null) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Counts the whole frame intervals from one frame to the frame shown at a later time. Frame
+   * timestamps are truncated to microseconds, so a time within a microsecond before a frame counts
+   * as that frame.
+   *
+   * @param from The timestamp of the first frame.
+   * @param to The later time.
+   * @param frameRate The frame rate of the video.
+   * @return The number of frames from the first frame to the one shown at the later time.
+   */
+  private static long framesBetween(final long from, final long to, final double frameRate) {
+
+    return Math.max(0, (long) Math.floor((to - from + 1) * frameRate / 1_000_000));
+  }
+
+  /**
+   * Writes a frame into the back buffers using the configured path.
    *
    * @param frame The frame to be processed.
    * @throws MemoryException If there's an issue writing to the frame buffer.
+   * @throws InterruptedException If the thread is interrupted while effects are applied.
+   */
+  private void writeFrameInBuffer(Frame frame) throws MemoryException, InterruptedException {
+
+    if (colorSpace != null) {
+      processYuvFrameAndWriteInBuffer(frame);
+    } else {
+      processFrameAndWriteInBuffer(frame);
+    }
+  }
+
+  /**
+   * Converts the first frame again into the back buffers while the renderer is still starting, so
+   * the conversion loop is already compiled when steady playback begins. The front buffers keep the
+   * first frame, and the next real frame overwrites the back buffers.
+   *
+   * @param frame The first frame.
+   * @throws MemoryException If there's an issue writing to the frame buffer.
+   * @throws InterruptedException If the thread is interrupted while effects are applied.
    */
-  private void processFrameAndWriteInBuffer(Frame frame) throws MemoryException {
+  private void warmUp(Frame frame) throws MemoryException, InterruptedException {
+
+    for (int i = 0; i < WARM_UP_ITERATIONS && !isInterrupted(); i++) {
+      if (StartupTimeline.hasHappened(StartupEvent.RENDERER_READY)) {
+        return;
+      }
+      writeFrameInBuffer(frame);
+    }
+  }
+
+  /**
+   * Processes a single frame, resizing and mapping it into the back buffers.
+   *
+   * @param frame The frame to be processed.
+   * @throws MemoryException If there's an issue writing to the frame buffer.
+   * @throws InterruptedException If the thread is interrupted while effects are applied.
+   */
+  private void processFrameAndWriteInBuffer(Frame frame)
+      throws MemoryException, InterruptedException {
 
     BufferedImage originalImage = converter.getBufferedImage(frame);
     BufferedImage resizedImage = resizeImage(originalImage, width, height);
-    int address = 0;
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        float normX = (x / (float) width) * 2 - 1;
-        float normY = ((height - y) / (float) height) * 2 - 1;
+    int[] pixels = ((DataBufferInt) resizedImage.getRaster().getDataBuffer()).getData();
+
+    if (effectPass != null) {
+      // Effects run in the same band-parallel pass that writes the rows
+      effectPass.apply(pixels, width, height, this::writeRowInBuffer);
+    } else {
+      for (int y = 0; y < height; y++) {
+        writeRowInBuffer(y, pixels, y * width);
+      }
+    }
+  }
 
-        int color = resizedImage.getRGB(x, y);
+  /**
+   * Maps one row of packed ARGB pixels into the pixel and vertex buffers. Rows may be written
+   * concurrently, since each one covers its own range of the back buffers.
+   *
+   * @param y The row index.
+   * @param pixels The array holding the row.
+   * @param offset The index of the row's first pixel in the array.
+   * @throws MemoryException If there's an issue writing to the frame buffer.
+   */
+  private void writeRowInBuffer(int y, int[] pixels, int offset) throws MemoryException {
 
-        float r = ((color >> 16) & 0xFF) / 255.0f;
-        float g = ((color >> 8) & 0xFF) / 255.0f;
-        float b = (color & 0xFF) / 255.0f;
-        float u = x / (float) width;
-        float v = y / (float) height;
+    float[] pixelRow = new float[width * 4];
+    float[] vertexRow = new float[width * 8];
+    float normY = ((height - y) / (float) height) * 2 - 1;
+    float v = y / (float) height;
 
-        frameBuffer.writeToPixelBufferFromFloats(address * 4, new float[] {r, g, b, 1});
+    for (int x = 0; x < width; x++) {
+      float normX = (x / (float) width) * 2 - 1;
 
-        frameBuffer.writeToVertexBufferFromFloats(
-            (y * width + x) * 32, new float[] {normX, normY, r, g, b, 1, u, v});
+      int color = pixels[offset + x];
 
-        address += 4;
-      }
+      float r = ((color >> 16) & 0xFF) / 255.0f;
+      float g = ((color >> 8) & 0xFF) / 255.0f;
+      float b = (color & 0xFF) / 255.0f;
+      float u = x / (float) width;
+
+      int pixel = x * 4;
+      pixelRow[pixel] = r;
+      pixelRow[pixel + 1] = g;
+      pixelRow[pixel + 2] = b;
+      pixelRow[pixel + 3] = 1;
+
+      int vertex = x * 8;
+      vertexRow[vertex] = normX;
+      vertexRow[vertex + 1] = normY;
+      vertexRow[vertex + 2] = r;
+      vertexRow[vertex + 3] = g;
+      vertexRow[vertex + 4] = b;
+      vertexRow[vertex + 5] = 1;
+      vertexRow[vertex + 6] = u;
+      vertexRow[vertex + 7] = v;
     }
-    frameBuffer.swap();
+
+    frameBuffer.writeToPixelBufferFromFloats(y * width * 16, pixelRow);
+    frameBuffer.writeToVertexBufferFromFloats(y * width * 32, vertexRow);
+  }
+
+  /**
+   * Copies the Y, U and V planes of a YUV420 frame into the back buffer, dropping row padding.
+   *
+   * @param frame The planar YUV420 frame, already scaled to the target size.
+   * @throws MemoryException If there's an issue writing to the frame buffer.
+   */
+  private void processYuvFrameAndWriteInBuffer(Frame frame) throws MemoryException {
+
+    frameBuffer.writeYuvFrame((ByteBuffer) frame.image[0], frame.imageStride, width, height);
   }
+
+  /**
+   * A pending seek.
+   *
+   * @param timestamp The requested position in microseconds.
+   * @param requestedNanos The time of the request, from {@link System#nanoTime()}.
+   */
+  private record SeekRequest(long timestamp, long requestedNanos) {}
 }
@@ -67,7 +67,7 @@ public class Window {
       if (icon == null) {
         return;
       }
-      GLFWImage.Buffer icons = GLFWImage.malloc(1);
+      GLFWImage.Buffer icons = GLFWImage.malloc(1, stack); // Freed with the stack frame
       icons.position(0).width(w.get(0)).height(h.get(0)).pixels(icon);
       // Set the window icon
       GLFW.glfwSetWindowIcon(window, icons);
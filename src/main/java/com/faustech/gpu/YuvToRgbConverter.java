@@ -0,0 +1,77 @@
+package com.faustech.gpu;
+
+/**
+ * CPU reference for the YUV420 fragment shader, used to validate the planar path without a GPU.
+ */
+public class YuvToRgbConverter {
+
+  private final float[] matrix; // Row-major YUV to RGB matrix
+
+  private final float[] offset; // Limited-range offsets for Y, U and V
+
+  /**
+   * Constructs a converter for the given color space.
+   *
+   * @param colorSpace The color space of the source samples.
+   */
+  public YuvToRgbConverter(final ColorSpace colorSpace) {
+
+    this.matrix = colorSpace.getMatrix();
+    this.offset = colorSpace.getOffset();
+  }
+
+  /**
+   * Converts a single normalized YUV sample to RGB, mirroring the shader math.
+   *
+   * @param y The normalized luma sample.
+   * @param u The normalized blue-difference sample.
+   * @param v The normalized red-difference sample.
+   * @param rgb The 3-element array receiving the clamped RGB result.
+   */
+  public void convert(final float y, final float u, final float v, final float[] rgb) {
+
+    final float dy = y - offset[0];
+    final float du = u - offset[1];
+    final float dv = v - offset[2];
+    for (int row = 0; row < 3; row++) {
+      final float value =
+          matrix[row * 3] * dy + matrix[row * 3 + 1] * du + matrix[row * 3 + 2] * dv;
+      rgb[row] = Math.min(1.0f, Math.max(0.0f, value));
+    }
+  }
+
+  /**
+   * Converts a planar YUV420 frame into RGBA floats using nearest chroma sampling, as the shader
+   * does with {@code GL_NEAREST} filtering.
+   *
+   * @param planes The Y plane followed by the U and V planes, without row padding.
+   * @param width The frame width, which must be even.
+   * @param height The frame height, which must be even.
+   * @return The frame as RGBA floats, one row after another from the top.
+   */
+  public float[] convertFrame(final byte[] planes, final int width, final int height) {
+
+    final int chromaWidth = width / 2;
+    final int uPlane = width * height;
+    final int vPlane = uPlane + chromaWidth * (height / 2);
+    final float[] rgba = new float[width * height * 4];
+    final float[] rgb = new float[3];
+
+    int address = 0;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        final int chroma = (y / 2) * chromaWidth + x / 2;
+        convert(
+            (planes[y * width + x] & 0xFF) / 255.0f,
+            (planes[uPlane + chroma] & 0xFF) / 255.0f,
+            (planes[vPlane + chroma] & 0xFF) / 255.0f,
+            rgb);
+        rgba[address++] = rgb[0];
+        rgba[address++] = rgb[1];
+        rgba[address++] = rgb[2];
+        rgba[address++] = 1.0f;
+      }
+    }
+    return rgba;
+  }
+}
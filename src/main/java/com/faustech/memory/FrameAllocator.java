@@ -0,0 +1,23 @@
+package com.faustech.memory;
+
+import java.nio.ByteBuffer;
+
+/** Allocates the memory backing frame buffers, allowing native and NUMA-aware strategies. */
+public interface FrameAllocator {
+
+  /**
+   * Allocates a buffer.
+   *
+   * @param size The size in bytes.
+   * @return A buffer of exactly the requested capacity.
+   * @throws MemoryException If the memory cannot be allocated.
+   */
+  ByteBuffer allocate(int size) throws MemoryException;
+
+  /**
+   * Releases a buffer obtained from {@link #allocate(int)}.
+   *
+   * @param buffer The buffer to release.
+   */
+  void free(ByteBuffer buffer);
+}
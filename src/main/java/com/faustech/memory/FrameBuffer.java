@@ -1,9 +1,12 @@
 package com.faustech.memory;
 
 import com.faustech.dto.RenderDataDto;
+import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.extern.java.Log;
 
@@ -13,6 +16,8 @@ public class FrameBuffer {
 
   @Getter private static int bufferSize; // Size of each buffer
 
+  @Getter private static int yuvBufferSize; // Size of each planar YUV420 buffer
+
   private byte[] frontPixelBuffer; // Buffer to store pixel data
 
   private byte[] backPixelBuffer; // Buffer to store pixel data
@@ -21,6 +26,16 @@ public class FrameBuffer {
 
   private byte[] backVertexBuffer; // Buffer to write new data to
 
+  private final FrameAllocator allocator; // Allocator owning the YUV buffers
+
+  private ByteBuffer frontYuvBuffer; // Planar YUV420 buffer currently displayed
+
+  private ByteBuffer backYuvBuffer; // Planar YUV420 buffer to write new data to
+
+  private final CountDownLatch firstFrame = new CountDownLatch(1); // Released by the first swap
+
+  @Getter private volatile long generation; // Number of swaps so far, written by the producer only
+
   /**
    * Constructs a FrameBuffer with specified memory addresses and buffer size.
    *
@@ -28,12 +43,41 @@ public class FrameBuffer {
    */
   public FrameBuffer(final int bufferSize) {
 
+    this(bufferSize, 0);
+  }
+
+  /**
+   * Constructs a FrameBuffer that also holds planar YUV420 frames.
+   *
+   * @param bufferSize The size of each buffer.
+   * @param yuvBufferSize The size in bytes of each planar YUV420 buffer.
+   */
+  public FrameBuffer(final int bufferSize, final int yuvBufferSize) {
+
+    this(bufferSize, yuvBufferSize, NativeAllocator.HEAP);
+  }
+
+  /**
+   * Constructs a FrameBuffer whose planar YUV420 buffers come from the given allocator, so they can
+   * live in native memory on a chosen NUMA node.
+   *
+   * @param bufferSize The size of each buffer.
+   * @param yuvBufferSize The size in bytes of each planar YUV420 buffer.
+   * @param allocator The allocator for the YUV buffers.
+   */
+  public FrameBuffer(
+      final int bufferSize, final int yuvBufferSize, final FrameAllocator allocator) {
+
     final int size = bufferSize * 8;
     this.frontPixelBuffer = new byte[size]; // Initialize pixel buffer
     this.backPixelBuffer = new byte[size]; // Initialize pixel buffer
     this.frontVertexBuffer = new byte[size]; // Initialize front buffer
     this.backVertexBuffer = new byte[size]; // Initialize back buffer
+    this.allocator = allocator;
+    this.frontYuvBuffer = allocator.allocate(yuvBufferSize); // Initialize front YUV buffer
+    this.backYuvBuffer = allocator.allocate(yuvBufferSize); // Initialize back YUV buffer
     FrameBuffer.bufferSize = bufferSize * 2;
+    FrameBuffer.yuvBufferSize = yuvBufferSize;
   }
 
   /**
@@ -71,7 +115,7 @@ public class FrameBuffer {
   public void writeToBufferFromFloats(
       final byte[] buffer, final int beginAddress, final float[] data) throws MemoryException {
 
-    checkAddressRange(beginAddress, data.length, buffer);
+    checkAddressRange(beginAddress, data.length, buffer.length);
 
     ByteBuffer byteBuffer = ByteBuffer.allocate(data.length * 4).order(ByteOrder.nativeOrder());
     FloatBuffer floatBuffer = byteBuffer.asFloatBuffer();
@@ -81,18 +125,105 @@ public class FrameBuffer {
     byteBuffer.get(buffer, beginAddress, byteBuffer.remaining());
   }
 
+  /**
+   * Copies raw plane bytes into the back YUV buffer.
+   *
+   * @param beginAddress The starting index where data is to be written.
+   * @param data The source buffer holding the plane bytes.
+   * @param dataOffset The absolute index in the source buffer to copy from.
+   * @param length The number of bytes to copy.
+   * @throws MemoryException If the write operation exceeds buffer limits.
+   */
+  public void writeToYuvBuffer(
+      final int beginAddress, final ByteBuffer data, final int dataOffset, final int length)
+      throws MemoryException {
+
+    checkAddressRange(beginAddress, length, backYuvBuffer.capacity());
+
+    backYuvBuffer.put(beginAddress, data, dataOffset, length);
+  }
+
+  /**
+   * Copies a decoded planar YUV420 frame into the back YUV buffer, dropping its row padding.
+   *
+   * @param source The decoded planes, as laid out by {@link Yuv420#copyPlanes}.
+   * @param lumaStride The distance between two luma rows in the source.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @throws MemoryException If the frame does not fit the buffer.
+   */
+  public void writeYuvFrame(
+      final ByteBuffer source, final int lumaStride, final int width, final int height)
+      throws MemoryException {
+
+    checkAddressRange(0, Yuv420.frameSize(width, height), backYuvBuffer.capacity());
+
+    Yuv420.copyPlanes(source, lumaStride, width, height, backYuvBuffer, 0);
+  }
+
+  /**
+   * Copies raw plane bytes out of a memory segment, such as a shared mapping of any size, into the
+   * back YUV buffer.
+   *
+   * @param beginAddress The starting index where data is to be written.
+   * @param data The source memory holding the plane bytes.
+   * @param dataOffset The offset in the source memory to copy from.
+   * @param length The number of bytes to copy.
+   * @throws MemoryException If the write operation exceeds buffer limits.
+   */
+  public void writeToYuvBuffer(
+      final int beginAddress, final MemorySegment data, final long dataOffset, final int length)
+      throws MemoryException {
+
+    checkAddressRange(beginAddress, length, backYuvBuffer.capacity());
+
+    MemorySegment.copy(
+        data, dataOffset, MemorySegment.ofBuffer(backYuvBuffer), beginAddress, length);
+  }
+
+  /**
+   * Copies the front YUV buffer into the given target, typically a mapped pixel buffer object.
+   *
+   * @param target The buffer receiving the planar YUV420 data at its current position.
+   * @throws MemoryException If the target cannot hold a whole frame.
+   */
+  public void readFromYuvBuffer(final ByteBuffer target) throws MemoryException {
+
+    final int length = frontYuvBuffer.capacity();
+    if (target.remaining() < length) {
+      throw new MemoryException(
+          "Target buffer too small for YUV frame. (remaining: "
+              + target.remaining()
+              + ", required: "
+              + length
+              + ")");
+    }
+
+    target.put(target.position(), frontYuvBuffer, 0, length);
+    target.position(target.position() + length);
+  }
+
+  /** Returns the YUV buffers to their allocator. The frame buffer must not be used afterwards. */
+  public void free() {
+
+    allocator.free(frontYuvBuffer);
+    allocator.free(backYuvBuffer);
+    frontYuvBuffer = null;
+    backYuvBuffer = null;
+  }
+
   /**
    * Checks if the address range is valid for the given data length.
    *
    * @param beginAddress The starting index in the buffer.
    * @param data The length of the data to be written.
-   * @param backBuffer The buffer to write data to.
+   * @param bufferLength The length of the buffer to write data to.
    * @throws MemoryException If the address range is invalid.
    */
-  private void checkAddressRange(int beginAddress, int data, byte[] backBuffer)
+  private void checkAddressRange(int beginAddress, int data, int bufferLength)
       throws MemoryException {
     int endAddress = beginAddress + data;
-    if (beginAddress < 0 || endAddress > backBuffer.length) {
+    if (beginAddress < 0 || endAddress > bufferLength) {
       throw new MemoryException(
           "Invalid data positions or data length. (beginAddress: "
               + beginAddress
@@ -102,7 +233,10 @@ public class FrameBuffer {
     }
   }
 
-  /** Swaps the front and back buffers, promoting the back to front for display. */
+  /**
+   * Swaps the front and back buffers, promoting the back to front for display. Readers can compare
+   * {@link #getGeneration()} across reads to tell a new frame from one they already saw.
+   */
   public void swap() {
 
     byte[] temp = frontVertexBuffer;
@@ -112,6 +246,37 @@ public class FrameBuffer {
     temp = frontPixelBuffer;
     frontPixelBuffer = backPixelBuffer;
     backPixelBuffer = temp;
+
+    final ByteBuffer yuvTemp = frontYuvBuffer;
+    frontYuvBuffer = backYuvBuffer;
+    backYuvBuffer = yuvTemp;
+
+    generation++;
+    firstFrame.countDown();
+  }
+
+  /**
+   * Checks whether a frame was ever swapped to the front.
+   *
+   * @return true if the front buffers hold a frame, false if they are still empty.
+   */
+  public boolean hasFrame() {
+
+    return firstFrame.getCount() == 0;
+  }
+
+  /**
+   * Waits until the first frame is swapped to the front.
+   *
+   * @param timeout The maximum time to wait.
+   * @param unit The unit of the timeout.
+   * @return true if a frame is available, false if the timeout elapsed first.
+   * @throws InterruptedException If the calling thread is interrupted while waiting.
+   */
+  public boolean awaitFirstFrame(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+
+    return firstFrame.await(timeout, unit);
   }
 
   /**
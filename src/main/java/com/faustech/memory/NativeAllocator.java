@@ -0,0 +1,60 @@
+package com.faustech.memory;
+
+import java.nio.ByteBuffer;
+import org.lwjgl.system.jemalloc.JEmalloc;
+import org.lwjgl.system.rpmalloc.RPmalloc;
+
+/** The frame allocators available out of the box. */
+public enum NativeAllocator implements FrameAllocator {
+  HEAP, // Java heap, released by the garbage collector
+  JEMALLOC, // jemalloc through LWJGL
+  RPMALLOC; // rpmalloc through LWJGL, with lock-free thread caches
+
+  private static boolean rpmallocInitialized; // Whether rpmalloc's global state is set up
+
+  /**
+   * Prepares rpmalloc for the calling thread, which it requires before any allocation or free.
+   */
+  private static synchronized void initializeRpmalloc() {
+
+    if (!rpmallocInitialized) {
+      RPmalloc.rpmalloc_initialize();
+      rpmallocInitialized = true;
+    }
+    if (!RPmalloc.rpmalloc_is_thread_initialized()) {
+      RPmalloc.rpmalloc_thread_initialize();
+    }
+  }
+
+  @Override
+  public ByteBuffer allocate(final int size) throws MemoryException {
+
+    final ByteBuffer buffer =
+        switch (this) {
+          case HEAP -> ByteBuffer.allocate(size);
+          case JEMALLOC -> JEmalloc.je_malloc(size);
+          case RPMALLOC -> {
+            initializeRpmalloc();
+            yield RPmalloc.rpmalloc(size);
+          }
+        };
+    if (buffer == null) {
+      throw new MemoryException(
+          "Failed to allocate frame memory. (allocator: " + this + ", size: " + size + ")");
+    }
+    return buffer;
+  }
+
+  @Override
+  public void free(final ByteBuffer buffer) {
+
+    switch (this) {
+      case HEAP -> {} // Reclaimed by the garbage collector
+      case JEMALLOC -> JEmalloc.je_free(buffer);
+      case RPMALLOC -> {
+        initializeRpmalloc();
+        RPmalloc.rpfree(buffer);
+      }
+    }
+  }
+}
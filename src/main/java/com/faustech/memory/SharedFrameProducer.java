@@ -0,0 +1,134 @@
+package com.faustech.memory;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Path;
+import lombok.extern.java.Log;
+
+/**
+ * Publishes frames into a {@link SharedFrameRing} so that another process can feed its
+ * {@link FrameBuffer}. Frames are written in place inside the mapping, and a restarted producer
+ * resumes after the last frame its predecessor published.
+ */
+@Log
+public class SharedFrameProducer implements AutoCloseable {
+
+  private final SharedFrameRing ring; // Ring the frames are published to
+
+  private long nextSequence; // Sequence of the next frame to publish
+
+  private boolean writing; // Whether a frame was begun but not committed
+
+  /**
+   * Constructs a producer over a ring mapped for writing.
+   *
+   * @param ring The ring to publish to.
+   */
+  private SharedFrameProducer(final SharedFrameRing ring) {
+
+    this.ring = ring;
+    this.nextSequence = ring.getPublishedSequence() + 1;
+  }
+
+  /**
+   * Creates or attaches to the ring at the given path.
+   *
+   * @param path The ring file, usually under /dev/shm.
+   * @param slotCount The number of frame slots.
+   * @param frameSize The size of each frame in bytes.
+   * @return A producer ready to publish frames.
+   * @throws IOException If the ring cannot be created or mapped.
+   */
+  public static SharedFrameProducer open(final Path path, final int slotCount, final int frameSize)
+      throws IOException {
+
+    return new SharedFrameProducer(SharedFrameRing.create(path, slotCount, frameSize));
+  }
+
+  /**
+   * Reserves the next slot and returns its memory so the frame can be written in place.
+   *
+   * @return The slot's frame memory.
+   */
+  public MemorySegment beginFrame() {
+
+    if (writing) {
+      throw new IllegalStateException("Previous frame was not committed.");
+    }
+    writing = true;
+    return ring.beginWrite(nextSequence);
+  }
+
+  /** Publishes the frame reserved by {@link #beginFrame()}. */
+  public void commitFrame() {
+
+    if (!writing) {
+      throw new IllegalStateException("No frame to commit.");
+    }
+    ring.commitWrite(nextSequence++);
+    writing = false;
+  }
+
+  /**
+   * Copies a whole frame into the next slot and publishes it.
+   *
+   * @param frame The frame bytes, exactly one frame long.
+   * @throws MemoryException If the frame size does not match the ring.
+   */
+  public void publish(final byte[] frame) throws MemoryException {
+
+    if (frame.length != ring.getFrameSize()) {
+      throw new MemoryException(
+          "Invalid frame length. (length: "
+              + frame.length
+              + ", frameSize: "
+              + ring.getFrameSize()
+              + ")");
+    }
+
+    MemorySegment.copy(frame, 0, beginFrame(), ValueLayout.JAVA_BYTE, 0, frame.length);
+    commitFrame();
+  }
+
+  /** Unmaps the ring, leaving the file in place for readers and later producers. */
+  @Override
+  public void close() {
+
+    ring.close();
+  }
+
+  /**
+   * Streams a synthetic moving YUV420 gradient into a ring, to exercise a consumer running in
+   * another JVM.
+   *
+   * @param args The ring path, frame width and frame height.
+   * @throws Exception If the ring cannot be opened or the thread is interrupted.
+   */
+  public static void main(String[] args) throws Exception {
+
+    if (args.length < 3) {
+      throw new IllegalArgumentException("Usage: <ring path> <width> <height>");
+    }
+
+    final int width = Integer.parseInt(args[1]);
+    final int height = Integer.parseInt(args[2]);
+    final int lumaSize = width * height;
+    final int chromaSize = (width / 2) * (height / 2);
+
+    try (SharedFrameProducer producer = open(Path.of(args[0]), 3, lumaSize + chromaSize * 2)) {
+      log.info(String.format("Publishing %dx%d frames to %s", width, height, args[0]));
+      for (int frame = 0; !Thread.currentThread().isInterrupted(); frame++) {
+        final MemorySegment slot = producer.beginFrame();
+        for (int y = 0; y < height; y++) {
+          for (int x = 0; x < width; x++) {
+            slot.set(ValueLayout.JAVA_BYTE, (long) y * width + x, (byte) (16 + (x + frame) % 220));
+          }
+        }
+        slot.asSlice(lumaSize).fill((byte) 128); // Neutral chroma
+        producer.commitFrame();
+        Thread.sleep(1000 / 60);
+      }
+    }
+  }
+}
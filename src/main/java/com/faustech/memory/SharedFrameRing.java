@@ -0,0 +1,322 @@
+package com.faustech.memory;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import lombok.Getter;
+
+/**
+ * A memory-mapped ring of frame slots shared between processes through a file, usually under
+ * /dev/shm. Every slot is guarded by a sequence word (odd while being written, even once
+ * published), so readers copy frames straight out of the mapping and discard torn reads.
+ */
+public class SharedFrameRing implements AutoCloseable {
+
+  public static final int MAGIC = 0x46524D52; // "FRMR", written last once the header is ready
+
+  public static final int VERSION = 1; // Layout version
+
+  private static final long MAGIC_OFFSET = 0; // int: MAGIC when initialized
+
+  private static final long VERSION_OFFSET = 4; // int: layout version
+
+  private static final long SLOT_COUNT_OFFSET = 8; // int: number of slots
+
+  private static final long FRAME_SIZE_OFFSET = 12; // int: bytes per frame
+
+  private static final long EPOCH_OFFSET = 16; // long: bumped on every producer (re)start
+
+  private static final long SEQUENCE_OFFSET = 24; // long: last published frame sequence
+
+  private static final long HEARTBEAT_OFFSET = 32; // long: last publish time in milliseconds
+
+  private static final long HEADER_SIZE = 64; // Header padded to a cache line
+
+  private static final long SLOT_HEADER_SIZE = 64; // Slot sequence word padded to a cache line
+
+  private static final VarHandle INT_HANDLE = ValueLayout.JAVA_INT.varHandle();
+
+  private static final VarHandle LONG_HANDLE = ValueLayout.JAVA_LONG.varHandle();
+
+  private final Arena arena; // Owns the mapping
+
+  private final MemorySegment segment; // Whole mapped file
+
+  @Getter private final Object fileKey; // Identity of the mapped file
+
+  @Getter private final int slotCount; // Number of frame slots
+
+  @Getter private final int frameSize; // Size of each frame in bytes
+
+  private final long slotStride; // Distance between two slots in bytes
+
+  /**
+   * Constructs a ring over an existing mapping.
+   *
+   * @param arena The arena owning the mapping.
+   * @param segment The mapped file.
+   * @param fileKey The identity of the mapped file.
+   * @param slotCount The number of frame slots.
+   * @param frameSize The size of each frame in bytes.
+   */
+  private SharedFrameRing(
+      final Arena arena,
+      final MemorySegment segment,
+      final Object fileKey,
+      final int slotCount,
+      final int frameSize) {
+
+    this.arena = arena;
+    this.segment = segment;
+    this.fileKey = fileKey;
+    this.slotCount = slotCount;
+    this.frameSize = frameSize;
+    this.slotStride = slotStride(frameSize);
+  }
+
+  /**
+   * Creates the ring file or attaches to a compatible one left by a previous producer, bumping its
+   * epoch. An incompatible file is replaced with a new one so attached readers keep a valid mapping
+   * until they notice the swap.
+   *
+   * @param path The ring file, usually under /dev/shm.
+   * @param slotCount The number of frame slots.
+   * @param frameSize The size of each frame in bytes.
+   * @return The ring mapped for writing.
+   * @throws IOException If the file cannot be created or mapped.
+   */
+  public static SharedFrameRing create(final Path path, final int slotCount, final int frameSize)
+      throws IOException {
+
+    if (slotCount < 2 || frameSize <= 0) {
+      throw new IllegalArgumentException(
+          "Invalid ring geometry. (slotCount: " + slotCount + ", frameSize: " + frameSize + ")");
+    }
+
+    final long size = HEADER_SIZE + slotCount * slotStride(frameSize);
+
+    if (Files.exists(path)) {
+      final SharedFrameRing existing = map(path, FileChannel.MapMode.READ_WRITE);
+      if (existing != null
+          && existing.slotCount == slotCount
+          && existing.frameSize == frameSize
+          && existing.segment.byteSize() == size) {
+        LONG_HANDLE.getAndAdd(existing.segment, EPOCH_OFFSET, 1L);
+        return existing;
+      }
+      if (existing != null) {
+        existing.close();
+      }
+      Files.delete(path);
+    }
+
+    final Arena arena = Arena.ofShared();
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(1), size - 1); // Extend the file to its full size
+      final MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+
+      INT_HANDLE.set(segment, VERSION_OFFSET, VERSION);
+      INT_HANDLE.set(segment, SLOT_COUNT_OFFSET, slotCount);
+      INT_HANDLE.set(segment, FRAME_SIZE_OFFSET, frameSize);
+      LONG_HANDLE.set(segment, SEQUENCE_OFFSET, -1L);
+      INT_HANDLE.setRelease(segment, MAGIC_OFFSET, MAGIC); // Publish the header
+
+      return new SharedFrameRing(arena, segment, fileKey(path), slotCount, frameSize);
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Attaches to a ring file created by a producer.
+   *
+   * @param path The ring file.
+   * @return The ring mapped for reading, or null if the file is not an initialized ring yet.
+   * @throws IOException If the file cannot be mapped.
+   */
+  public static SharedFrameRing open(final Path path) throws IOException {
+
+    return map(path, FileChannel.MapMode.READ_ONLY);
+  }
+
+  /**
+   * Maps a ring file and validates its header.
+   *
+   * @param path The ring file.
+   * @param mode The mapping mode.
+   * @return The mapped ring, or null if the header is missing or does not match its size.
+   * @throws IOException If the file cannot be mapped.
+   */
+  private static SharedFrameRing map(final Path path, final FileChannel.MapMode mode)
+      throws IOException {
+
+    final boolean writable = mode == FileChannel.MapMode.READ_WRITE;
+    final Arena arena = Arena.ofShared();
+    try (FileChannel channel =
+        writable
+            ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_SIZE) {
+        arena.close();
+        return null;
+      }
+
+      final MemorySegment segment = channel.map(mode, 0, size, arena);
+      if ((int) INT_HANDLE.getAcquire(segment, MAGIC_OFFSET) != MAGIC
+          || (int) INT_HANDLE.get(segment, VERSION_OFFSET) != VERSION) {
+        arena.close();
+        return null;
+      }
+
+      final int slotCount = (int) INT_HANDLE.get(segment, SLOT_COUNT_OFFSET);
+      final int frameSize = (int) INT_HANDLE.get(segment, FRAME_SIZE_OFFSET);
+      if (slotCount < 2
+          || frameSize <= 0
+          || size != HEADER_SIZE + slotCount * slotStride(frameSize)) {
+        arena.close();
+        return null;
+      }
+
+      return new SharedFrameRing(arena, segment, fileKey(path), slotCount, frameSize);
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Computes the distance between two slots, keeping every slot cache-line aligned.
+   *
+   * @param frameSize The size of each frame in bytes.
+   * @return The slot stride in bytes.
+   */
+  private static long slotStride(final int frameSize) {
+
+    return SLOT_HEADER_SIZE + ((frameSize + 63L) & ~63L);
+  }
+
+  /**
+   * Reads the identity of a file, used to detect that a ring file was replaced.
+   *
+   * @param path The file.
+   * @return The file key, or null if the file system does not provide one.
+   * @throws IOException If the attributes cannot be read.
+   */
+  public static Object fileKey(final Path path) throws IOException {
+
+    return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+  }
+
+  /**
+   * Returns the last published frame sequence.
+   *
+   * @return The sequence, or -1 if nothing was published yet.
+   */
+  public long getPublishedSequence() {
+
+    return (long) LONG_HANDLE.getAcquire(segment, SEQUENCE_OFFSET);
+  }
+
+  /**
+   * Returns the producer epoch, which changes every time a producer attaches.
+   *
+   * @return The epoch.
+   */
+  public long getEpoch() {
+
+    return (long) LONG_HANDLE.getAcquire(segment, EPOCH_OFFSET);
+  }
+
+  /**
+   * Returns the time of the last publish, which readers use to tell a live producer from a stalled
+   * or vanished one.
+   *
+   * @return The time in milliseconds since the epoch, or 0 if nothing was published yet.
+   */
+  public long getHeartbeat() {
+
+    return (long) LONG_HANDLE.getAcquire(segment, HEARTBEAT_OFFSET);
+  }
+
+  /**
+   * Marks the slot for a sequence as being written and returns its frame memory.
+   *
+   * @param sequence The sequence of the frame about to be written.
+   * @return The slot's frame memory, to be filled in place.
+   */
+  public MemorySegment beginWrite(final long sequence) {
+
+    final long slot = slotOffset(sequence);
+    LONG_HANDLE.setOpaque(segment, slot, sequence * 2 + 1);
+    VarHandle.storeStoreFence(); // The odd word must land before any frame byte
+    return segment.asSlice(slot + SLOT_HEADER_SIZE, frameSize);
+  }
+
+  /**
+   * Publishes a frame written after {@link #beginWrite(long)}.
+   *
+   * @param sequence The sequence of the written frame.
+   */
+  public void commitWrite(final long sequence) {
+
+    LONG_HANDLE.setRelease(segment, slotOffset(sequence), sequence * 2 + 2);
+    LONG_HANDLE.setRelease(segment, SEQUENCE_OFFSET, sequence);
+    LONG_HANDLE.setRelease(segment, HEARTBEAT_OFFSET, System.currentTimeMillis());
+  }
+
+  /**
+   * Copies a published frame into the back YUV buffer of a frame buffer.
+   *
+   * @param sequence The sequence of the frame to read.
+   * @param frameBuffer The frame buffer to write to.
+   * @return true if the frame was copied intact, false if it was overwritten or never completed.
+   * @throws MemoryException If the frame does not fit the frame buffer.
+   */
+  public boolean readFrame(final long sequence, final FrameBuffer frameBuffer)
+      throws MemoryException {
+
+    final long slot = slotOffset(sequence);
+    final long expected = sequence * 2 + 2;
+    if ((long) LONG_HANDLE.getAcquire(segment, slot) != expected) {
+      return false;
+    }
+
+    frameBuffer.writeToYuvBuffer(0, segment, slot + SLOT_HEADER_SIZE, frameSize);
+
+    VarHandle.loadLoadFence(); // Frame bytes must be read before the word is re-checked
+    return (long) LONG_HANDLE.getAcquire(segment, slot) == expected;
+  }
+
+  /**
+   * Computes the offset of the slot holding a sequence.
+   *
+   * @param sequence The frame sequence.
+   * @return The slot offset in bytes.
+   */
+  private long slotOffset(final long sequence) {
+
+    return HEADER_SIZE + (sequence % slotCount) * slotStride;
+  }
+
+  /** Unmaps the ring. */
+  @Override
+  public void close() {
+
+    arena.close();
+  }
+}
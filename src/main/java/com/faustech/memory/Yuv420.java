@@ -0,0 +1,76 @@
+package com.faustech.memory;
+
+import java.nio.ByteBuffer;
+
+/** Layout helpers for planar YUV420: a Y plane followed by U and V planes subsampled by 2x2. */
+public final class Yuv420 {
+
+  private Yuv420() {}
+
+  /**
+   * Computes the size of a packed frame, without row padding.
+   *
+   * @param width The frame width.
+   * @param height The frame height.
+   * @return The frame size in bytes.
+   */
+  public static int frameSize(final int width, final int height) {
+
+    return width * height + (width / 2) * (height / 2) * 2;
+  }
+
+  /**
+   * Copies the planes of a decoded frame into a packed frame, dropping the row padding decoders add
+   * for alignment. The source is a single YUV420P image buffer as FFmpeg lays it out: the luma
+   * plane, then the U and V planes, each with {@code (height + 1) / 2} rows. Their stride is not
+   * always half the luma stride, so it is derived from the size of the buffer. JavaCV sets the
+   * buffer's limit at the end of the luma plane; the copy reads through a duplicate whose limit is
+   * lifted to the capacity.
+   *
+   * @param source The decoded planes.
+   * @param lumaStride The distance between two luma rows in the source.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param target The buffer receiving the packed frame.
+   * @param targetOffset The index in the target where the frame starts.
+   * @throws IllegalArgumentException If the buffer does not hold a frame of this size and stride.
+   */
+  public static void copyPlanes(
+      final ByteBuffer source,
+      final int lumaStride,
+      final int width,
+      final int height,
+      final ByteBuffer target,
+      final int targetOffset) {
+
+    final ByteBuffer planes = source.duplicate().clear(); // Lifts the limit off the chroma planes
+    final int lumaSize = lumaStride * height;
+    final int chromaRows = (height + 1) / 2; // FFmpeg rounds the chroma plane height up
+    final int chromaStride = (planes.capacity() - lumaSize) / (2 * chromaRows);
+    final int chromaWidth = width / 2;
+    final int chromaHeight = height / 2;
+    if (lumaStride < width
+        || chromaStride < chromaWidth
+        || lumaSize + 2 * chromaStride * chromaRows != planes.capacity()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "A buffer of %d bytes does not hold a %dx%d YUV420 frame with luma stride %d",
+              planes.capacity(), width, height, lumaStride));
+    }
+
+    int address = targetOffset;
+    for (int y = 0; y < height; y++) {
+      target.put(address, planes, y * lumaStride, width);
+      address += width;
+    }
+
+    int planeOffset = lumaSize;
+    for (int plane = 0; plane < 2; plane++) {
+      for (int y = 0; y < chromaHeight; y++) {
+        target.put(address, planes, planeOffset + y * chromaStride, chromaWidth);
+        address += chromaWidth;
+      }
+      planeOffset += chromaStride * chromaRows;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.faustech.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Records latency samples in a fixed-size window of the most recent ones and reports percentiles
+ * over that window. Recording does not allocate, so it can sit on the frame path. All methods are
+ * thread-safe.
+ */
+public class LatencyRecorder {
+
+  private final long[] samples; // Ring of the most recent samples in nanoseconds
+
+  private long count; // Number of samples ever recorded
+
+  private long total; // Sum of every sample ever recorded
+
+  private long max; // Largest sample ever recorded
+
+  /**
+   * Constructs a recorder.
+   *
+   * @param window The number of recent samples kept for percentiles.
+   */
+  public LatencyRecorder(final int window) {
+
+    this.samples = new long[window];
+  }
+
+  /**
+   * Records one sample.
+   *
+   * @param nanos The latency in nanoseconds.
+   */
+  public synchronized void record(final long nanos) {
+
+    samples[(int) (count % samples.length)] = nanos;
+    count++;
+    total += nanos;
+    max = Math.max(max, nanos);
+  }
+
+  /**
+   * Returns the number of samples ever recorded.
+   *
+   * @return The sample count.
+   */
+  public synchronized long getCount() {
+
+    return count;
+  }
+
+  /**
+   * Returns the mean of every sample ever recorded.
+   *
+   * @return The mean in nanoseconds, or 0 without samples.
+   */
+  public synchronized long getMeanNanos() {
+
+    return count == 0 ? 0 : total / count;
+  }
+
+  /**
+   * Returns the largest sample ever recorded.
+   *
+   * @return The maximum in nanoseconds.
+   */
+  public synchronized long getMaxNanos() {
+
+    return max;
+  }
+
+  /**
+   * Computes a percentile over the recent window.
+   *
+   * @param percentile The percentile between 0 and 100.
+   * @return The sample at that percentile in nanoseconds, or 0 without samples.
+   */
+  public synchronized long getPercentileNanos(final double percentile) {
+
+    final int size = (int) Math.min(count, samples.length);
+    if (size == 0) {
+      return 0;
+    }
+    final long[] sorted = Arrays.copyOf(samples, size);
+    Arrays.sort(sorted);
+    final int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+    return sorted[Math.min(size - 1, Math.max(0, rank))];
+  }
+
+  /** Forgets every sample. */
+  public synchronized void reset() {
+
+    Arrays.fill(samples, 0);
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+
+  /**
+   * Summarizes the recorded latencies.
+   *
+   * @return The count, mean, p50, p95, p99 and max in milliseconds.
+   */
+  @Override
+  public synchronized String toString() {
+
+    return String.format(
+        "count=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+        count,
+        getMeanNanos() / 1e6,
+        getPercentileNanos(50) / 1e6,
+        getPercentileNanos(95) / 1e6,
+        getPercentileNanos(99) / 1e6,
+        max / 1e6);
+  }
+}
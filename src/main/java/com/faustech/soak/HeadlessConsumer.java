@@ -0,0 +1,85 @@
+package com.faustech.soak;
+
+import com.faustech.gpu.StartupEvent;
+import com.faustech.gpu.StartupTimeline;
+import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.MemoryException;
+import com.faustech.metrics.LatencyRecorder;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This thread stands in for the renderer during a soak run. It copies each new frame out of the
+ * front buffer the way {@code GPU} does, without a window or GL context, and records the time
+ * between new frames. A producer that stalls or slows down therefore shows up as long frames, even
+ * though this thread keeps running.
+ */
+@RequiredArgsConstructor
+public class HeadlessConsumer extends Thread {
+
+  private static final long POLL_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(1); // New frame check
+
+  private static final int FRAME_TIME_WINDOW = 4096; // Frames kept for the percentiles of a sample
+
+  private final FrameBuffer frameBuffer; // Frame buffer to read the frames from
+
+  private final boolean yuv; // Whether frames are read from the YUV buffer
+
+  @Getter
+  private final LatencyRecorder frameTimes = new LatencyRecorder(FRAME_TIME_WINDOW); // Per sample
+
+  @Getter private volatile long lastFrameNanos; // Arrival of the latest new frame, or 0 before
+
+  /**
+   * Returns the number of frames the producer has swapped in, whether or not they were read.
+   *
+   * @return The frame buffer generation.
+   */
+  public long getProducedFrames() {
+
+    return frameBuffer.getGeneration();
+  }
+
+  /** Entry point for the thread; consumes frames until interrupted. */
+  @Override
+  public void run() {
+
+    ThreadPlacement.pinCurrentThread(PipelineRole.RENDER);
+    StartupTimeline.record(StartupEvent.RENDERER_READY);
+
+    // Plays the part of the mapped pixel buffer object
+    final ByteBuffer staging =
+        yuv ? ByteBuffer.allocateDirect(FrameBuffer.getYuvBufferSize()) : null;
+    long seen = 0; // Generation of the last frame read, 0 before the first one
+
+    try {
+      while (!isInterrupted()) {
+        final long generation = frameBuffer.getGeneration();
+        if (generation != seen) {
+          final long arrival = System.nanoTime();
+          if (yuv) {
+            staging.clear();
+            frameBuffer.readFromYuvBuffer(staging);
+          } else {
+            frameBuffer.getRenderData();
+          }
+          if (seen == 0) {
+            StartupTimeline.record(StartupEvent.FIRST_FRAME_PRESENTED);
+          } else {
+            frameTimes.record(arrival - lastFrameNanos);
+          }
+          lastFrameNanos = arrival;
+          seen = generation;
+        }
+        LockSupport.parkNanos(POLL_INTERVAL_NS);
+      }
+    } catch (MemoryException e) {
+      throw new RuntimeException(String.format("Error reading frame: %s", e.getMessage()));
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.faustech.soak;
+
+import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.NativeAllocator;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.java.Log;
+
+/**
+ * Compares the placement requested through the {@code placement.*} system properties with the
+ * unpinned default on the Java heap. Both runs feed synthetic YUV420 frames to a headless consumer
+ * for the same time, so the frame time percentiles and the longest gap show what pinning buys.
+ *
+ * <pre>
+ * java -Dplacement.decode=2 -Dplacement.render=3 -Dplacement.allocator=jemalloc \
+ *     -cp ... com.faustech.soak.PlacementBenchmark 1920 1080 30
+ * </pre>
+ */
+@Log
+public class PlacementBenchmark {
+
+  private static final long WARM_UP_SECONDS = 2; // Time before measuring, to compile the loops
+
+  /**
+   * Runs the pipeline unpinned, then with the requested placement, and logs both results.
+   *
+   * @param args Optionally the frame width, frame height and measured seconds per run.
+   * @throws InterruptedException If the benchmark is interrupted.
+   */
+  public static void main(String[] args) throws InterruptedException {
+
+    final int width = args.length > 0 ? Integer.parseInt(args[0]) : 1920;
+    final int height = args.length > 1 ? Integer.parseInt(args[1]) : 1080;
+    final long seconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+
+    log.info(String.format("Placement benchmark: %dx%d, %d s per run", width, height, seconds));
+
+    final SoakSample unpinnedSample;
+    try (ThreadPlacement unpinned = new ThreadPlacement(null, Map.of(), NativeAllocator.HEAP)) {
+      unpinnedSample = run(unpinned, width, height, seconds);
+    }
+
+    final SoakSample pinnedSample;
+    final String report;
+    try (ThreadPlacement pinned = ThreadPlacement.fromSystemProperties()) {
+      boolean requested = pinned.getAllocator() != NativeAllocator.HEAP;
+      for (PipelineRole role : PipelineRole.values()) {
+        requested |= pinned.getCore(role) != null;
+      }
+      if (!requested) {
+        log.warning("No placement.* property set; both runs use the unpinned default.");
+      }
+      pinnedSample = run(pinned, width, height, seconds);
+      report = pinned.getReport();
+    }
+
+    log.info(String.format("Unpinned: %s", unpinnedSample));
+    log.info(String.format("Pinned:   %s", pinnedSample));
+    log.info(String.format("Placement: %s", report));
+    log.info(
+        String.format(
+            "Pinned p99 frame %.2f ms against %.2f ms unpinned, longest gap %.2f against %.2f ms",
+            pinnedSample.p99FrameMillis(),
+            unpinnedSample.p99FrameMillis(),
+            pinnedSample.maxFrameGapMillis(),
+            unpinnedSample.maxFrameGapMillis()));
+  }
+
+  /**
+   * Runs the synthetic pipeline with a placement and samples it once after the warm-up.
+   *
+   * @param placement The placement of the threads and frame memory.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param seconds The measured time.
+   * @return The sample of the measured interval.
+   * @throws InterruptedException If the benchmark is interrupted.
+   */
+  private static SoakSample run(
+      final ThreadPlacement placement, final int width, final int height, final long seconds)
+      throws InterruptedException {
+
+    ThreadPlacement.install(placement);
+    final FrameBuffer frameBuffer =
+        new FrameBuffer(width * height * 4, width * height * 3 / 2, placement);
+    final SyntheticFrameSource producer = new SyntheticFrameSource(width, height, frameBuffer);
+    final HeadlessConsumer consumer = new HeadlessConsumer(frameBuffer, true);
+    producer.setDaemon(true);
+    consumer.setDaemon(true);
+    producer.start();
+    consumer.start();
+
+    try {
+      final RuntimeSampler sampler = new RuntimeSampler();
+      TimeUnit.SECONDS.sleep(WARM_UP_SECONDS);
+      sampler.sample(0, consumer); // Drops the warm-up frame times
+      TimeUnit.SECONDS.sleep(seconds);
+      return sampler.sample(TimeUnit.SECONDS.toMillis(seconds), consumer);
+    } finally {
+      producer.interrupt();
+      consumer.interrupt();
+      producer.join();
+      consumer.join();
+      frameBuffer.free();
+      ThreadPlacement.install(null);
+    }
+  }
+}
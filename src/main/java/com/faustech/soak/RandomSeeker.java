@@ -0,0 +1,50 @@
+package com.faustech.soak;
+
+import com.faustech.gpu.VideoFrameToVertexArray;
+import com.faustech.metrics.LatencyRecorder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This thread stands in for a user scrubbing through the video during a soak run. It requests a
+ * seek to a random position at a fixed interval, so the producer's seek-to-display latency is
+ * measured under steady playback.
+ */
+@RequiredArgsConstructor
+public class RandomSeeker extends Thread {
+
+  private static final long SEED = 42; // Fixed, so runs of different builds seek alike
+
+  private final VideoFrameToVertexArray video; // Producer that performs the seeks
+
+  private final long intervalMillis; // Time between two seek requests
+
+  /** Entry point for the thread; seeks until interrupted. */
+  @Override
+  public void run() {
+
+    final Random random = new Random(SEED);
+    try {
+      while (!isInterrupted()) {
+        TimeUnit.MILLISECONDS.sleep(intervalMillis);
+        final long duration = video.getDuration();
+        if (duration > 0) {
+          video.seek((long) (random.nextDouble() * duration));
+        }
+      }
+    } catch (InterruptedException e) {
+      interrupt();
+    }
+  }
+
+  /**
+   * Returns the latencies of the requested seeks.
+   *
+   * @return The producer's seek-to-display latencies.
+   */
+  public LatencyRecorder getSeekLatency() {
+
+    return video.getSeekLatency();
+  }
+}
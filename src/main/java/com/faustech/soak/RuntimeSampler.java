@@ -0,0 +1,157 @@
+package com.faustech.soak;
+
+import com.faustech.metrics.LatencyRecorder;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import lombok.extern.java.Log;
+
+/**
+ * Reads the JVM counters a soak run tracks: allocation, GC pauses, heap, direct buffers and, when
+ * the JVM runs with {@code -XX:NativeMemoryTracking=summary}, committed native memory. Each sample
+ * covers the time since the previous one.
+ */
+@Log
+public class RuntimeSampler {
+
+  private static final double MB = 1024.0 * 1024.0; // Bytes per megabyte
+
+  private static final Pattern NMT_TOTAL =
+      Pattern.compile("Total: reserved=(\\d+)KB, committed=(\\d+)KB"); // NMT summary totals
+
+  private final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final List<GarbageCollectorMXBean> pauseCollectors; // Collectors that report pauses
+
+  private final BufferPoolMXBean directPool; // Pool of direct byte buffers
+
+  private long lastNanos; // Time of the previous sample
+
+  private long lastAllocatedBytes; // Heap bytes allocated by all threads at the previous sample
+
+  private long lastGcMillis; // GC pause time at the previous sample
+
+  private long lastProducedFrames; // Frames swapped in by the producer at the previous sample
+
+  /** Constructs a sampler whose first interval starts now. */
+  public RuntimeSampler() {
+
+    // Concurrent cycle beans (G1 Concurrent GC, ZGC Cycles) time work done beside the application
+    this.pauseCollectors =
+        ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .filter(gc -> !gc.getName().contains("Concurrent") && !gc.getName().contains("Cycles"))
+            .toList();
+    this.directPool =
+        ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> pool.getName().equals("direct"))
+            .findFirst()
+            .orElse(null);
+
+    this.lastNanos = System.nanoTime();
+    this.lastAllocatedBytes = threads.getTotalThreadAllocatedBytes();
+    this.lastGcMillis = getGcMillis();
+  }
+
+  /**
+   * Takes a sample and starts the next interval. The frame times are reset, so each sample holds
+   * the percentiles of its own interval.
+   *
+   * @param elapsedMillis The time since the run started.
+   * @param consumer The consumer, with the frame times it recorded.
+   * @return The sample.
+   */
+  public SoakSample sample(final long elapsedMillis, final HeadlessConsumer consumer) {
+
+    final long now = System.nanoTime();
+    final long allocatedBytes = threads.getTotalThreadAllocatedBytes();
+    final long gcMillis = getGcMillis();
+    final long producedFrames = consumer.getProducedFrames();
+    final long lastFrameNanos = consumer.getLastFrameNanos();
+    final double seconds = Math.max(now - lastNanos, 1) / 1e9;
+    final double sinceLastFrameMillis =
+        lastFrameNanos != 0 ? (now - lastFrameNanos) / 1e6 : elapsedMillis;
+    final LatencyRecorder frameTimes = consumer.getFrameTimes();
+
+    final SoakSample sample;
+    synchronized (frameTimes) {
+      sample =
+          SoakSample.builder()
+              .elapsedMillis(elapsedMillis)
+              .frames(frameTimes.getCount())
+              .producedFrameRate((producedFrames - lastProducedFrames) / seconds)
+              .p50FrameMillis(frameTimes.getPercentileNanos(50) / 1e6)
+              .p99FrameMillis(frameTimes.getPercentileNanos(99) / 1e6)
+              .maxFrameMillis(frameTimes.getMaxNanos() / 1e6)
+              .maxFrameGapMillis(Math.max(frameTimes.getMaxNanos() / 1e6, sinceLastFrameMillis))
+              .allocationMbPerSecond((allocatedBytes - lastAllocatedBytes) / MB / seconds)
+              .gcPauseMillis(gcMillis - lastGcMillis)
+              .gcPausePercent((gcMillis - lastGcMillis) / (seconds * 10))
+              .heapUsedBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed())
+              .directBytes(directPool != null ? directPool.getMemoryUsed() : -1)
+              .nativeCommittedBytes(getNativeCommittedBytes())
+              .build();
+      frameTimes.reset();
+    }
+
+    lastNanos = now;
+    lastAllocatedBytes = allocatedBytes;
+    lastGcMillis = gcMillis;
+    lastProducedFrames = producedFrames;
+    return sample;
+  }
+
+  /**
+   * Measures the live heap by collecting garbage first, so growth between two calls points at a
+   * leak rather than at allocation timing.
+   *
+   * @return The used heap after a full collection in bytes.
+   */
+  public long getLiveHeapBytes() {
+
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Reads the committed native memory from native memory tracking.
+   *
+   * @return The committed bytes, or -1 if tracking is off or cannot be queried.
+   */
+  public long getNativeCommittedBytes() {
+
+    try {
+      final Object summary =
+          ManagementFactory.getPlatformMBeanServer()
+              .invoke(
+                  new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                  "vmNativeMemory",
+                  new Object[] {new String[] {"summary"}},
+                  new String[] {String[].class.getName()});
+      final Matcher matcher = NMT_TOTAL.matcher(String.valueOf(summary));
+      return matcher.find() ? Long.parseLong(matcher.group(2)) * 1024 : -1;
+    } catch (JMException e) {
+      log.fine(String.format("Native memory tracking unavailable: %s", e.getMessage()));
+      return -1;
+    }
+  }
+
+  /**
+   * Sums the pause time of every collector.
+   *
+   * @return The accumulated GC pause time in milliseconds.
+   */
+  private long getGcMillis() {
+
+    long total = 0;
+    for (GarbageCollectorMXBean gc : pauseCollectors) {
+      total += Math.max(gc.getCollectionTime(), 0);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,95 @@
+package com.faustech.soak;
+
+import java.nio.file.Path;
+import lombok.Builder;
+
+/**
+ * Settings of a soak run, including the thresholds that fail it.
+ *
+ * @param buildId The commit or version of the build under test, or null if unknown.
+ * @param source "synthetic" or the path of a local video.
+ * @param yuv Whether frames travel through the planar YUV420 path instead of float RGBA.
+ * @param width The frame width.
+ * @param height The frame height.
+ * @param durationSeconds The length of the run.
+ * @param sampleIntervalSeconds The time between two samples.
+ * @param warmUpSeconds The time before the baseline for heap and native growth is taken.
+ * @param seekIntervalMillis The time between two seeks to random positions, 0 for no seeking.
+ * @param reportPath Where the JSON report is written.
+ * @param maxTimeToFirstFrameMillis The longest allowed time until the consumer sees a frame.
+ * @param minFrameRate The lowest allowed rate of produced frames in any sample.
+ * @param maxFrameGapMillis The longest allowed time without a new frame.
+ * @param maxP99FrameMillis The highest allowed p99 frame time of any sample.
+ * @param maxAllocationMbPerSecond The highest allowed allocation rate of any sample.
+ * @param maxGcPausePercent The highest allowed share of a sample spent in GC.
+ * @param maxHeapGrowthMb The highest allowed growth of the live heap after warm-up.
+ * @param maxNativeGrowthMb The highest allowed growth of committed native memory after warm-up.
+ */
+@Builder
+public record SoakConfig(
+    String buildId,
+    String source,
+    boolean yuv,
+    int width,
+    int height,
+    long durationSeconds,
+    long sampleIntervalSeconds,
+    long warmUpSeconds,
+    long seekIntervalMillis,
+    Path reportPath,
+    double maxTimeToFirstFrameMillis,
+    double minFrameRate,
+    double maxFrameGapMillis,
+    double maxP99FrameMillis,
+    double maxAllocationMbPerSecond,
+    double maxGcPausePercent,
+    double maxHeapGrowthMb,
+    double maxNativeGrowthMb) {
+
+  /**
+   * Reads the configuration from {@code soak.*} system properties, with defaults suited to a
+   * one-minute smoke run. The build is {@code soak.build}, for example the commit hash, or else the
+   * version in the jar manifest.
+   *
+   * @return The configuration.
+   */
+  public static SoakConfig fromSystemProperties() {
+
+    final String source = System.getProperty("soak.source", "synthetic");
+    return SoakConfig.builder()
+        .buildId(
+            System.getProperty(
+                "soak.build", SoakConfig.class.getPackage().getImplementationVersion()))
+        .source(source)
+        .yuv(Boolean.parseBoolean(System.getProperty("soak.yuv", "true")))
+        .width(Integer.getInteger("soak.width", 1080))
+        .height(Integer.getInteger("soak.height", 720))
+        .durationSeconds(Long.getLong("soak.duration", 60))
+        .sampleIntervalSeconds(Long.getLong("soak.sampleInterval", 5))
+        .warmUpSeconds(Long.getLong("soak.warmUp", 10))
+        .seekIntervalMillis(Long.getLong("soak.seekInterval", 0))
+        .reportPath(Path.of(System.getProperty("soak.report", "soak-report.json")))
+        .maxTimeToFirstFrameMillis(getDouble("soak.maxTimeToFirstFrameMs", 2000.0))
+        .minFrameRate(getDouble("soak.minFrameRate", 24.0))
+        .maxFrameGapMillis(getDouble("soak.maxFrameGapMs", 250.0))
+        .maxP99FrameMillis(getDouble("soak.maxP99FrameMs", 33.0))
+        .maxAllocationMbPerSecond(getDouble("soak.maxAllocationMbPerSec", 512.0))
+        .maxGcPausePercent(getDouble("soak.maxGcPausePercent", 5.0))
+        .maxHeapGrowthMb(getDouble("soak.maxHeapGrowthMb", 64.0))
+        .maxNativeGrowthMb(getDouble("soak.maxNativeGrowthMb", 64.0))
+        .build();
+  }
+
+  /**
+   * Reads a decimal system property.
+   *
+   * @param name The property name.
+   * @param defaultValue The value used when the property is not set.
+   * @return The property value.
+   */
+  private static double getDouble(final String name, final double defaultValue) {
+
+    final String value = System.getProperty(name);
+    return value != null ? Double.parseDouble(value) : defaultValue;
+  }
+}
@@ -0,0 +1,136 @@
+package com.faustech.soak;
+
+import com.faustech.gpu.ColorSpace;
+import com.faustech.gpu.StartupTimeline;
+import com.faustech.gpu.VideoFrameToVertexArray;
+import com.faustech.memory.FrameBuffer;
+import com.faustech.topology.ThreadPlacement;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.java.Log;
+
+/**
+ * Runs the producer, frame buffer and a headless consumer for a fixed time without a window,
+ * sampling frame times and memory, then writes a JSON report and exits with status 1 if a threshold
+ * was broken. Configured through {@code soak.*} system properties, for example:
+ *
+ * <pre>
+ * java -XX:NativeMemoryTracking=summary -Dsoak.duration=3600 -Dsoak.source=video.mp4 \
+ *     -cp ... com.faustech.soak.SoakHarness
+ * </pre>
+ *
+ * <p>The report records the build under test: {@code -Dsoak.build=$(git rev-parse --short HEAD)}
+ * names the commit, otherwise the version in the jar manifest is used.
+ *
+ * <p>With a video source, {@code -Dsoak.seekInterval=500} also seeks to a random position every
+ * 500 ms and reports the seek-to-display latency.
+ */
+@Log
+public class SoakHarness {
+
+  private static final String SYNTHETIC_SOURCE = "synthetic"; // Generated frames, no video file
+
+  private static final long SHUTDOWN_TIMEOUT_MS = 2000; // Time the pipeline threads get to stop
+
+  public static void main(String[] args) throws InterruptedException {
+
+    StartupTimeline.start();
+    final ThreadPlacement placement = ThreadPlacement.fromSystemProperties();
+    ThreadPlacement.install(placement);
+
+    final SoakConfig config = SoakConfig.fromSystemProperties();
+    final boolean synthetic = config.source().equals(SYNTHETIC_SOURCE);
+    if (synthetic && !config.yuv()) {
+      throw new IllegalArgumentException("The synthetic source only produces YUV420 frames.");
+    }
+    if (synthetic && config.seekIntervalMillis() > 0) {
+      throw new IllegalArgumentException("The synthetic source cannot seek; use a video source.");
+    }
+
+    final FrameBuffer frameBuffer =
+        new FrameBuffer(
+            config.width() * config.height() * 4,
+            config.width() * config.height() * 3 / 2,
+            placement);
+
+    final Thread producer =
+        synthetic
+            ? new SyntheticFrameSource(config.width(), config.height(), frameBuffer)
+            : new VideoFrameToVertexArray(
+                config.source(),
+                config.width(),
+                config.height(),
+                frameBuffer,
+                config.yuv() ? ColorSpace.BT709 : null,
+                null);
+    final HeadlessConsumer consumer = new HeadlessConsumer(frameBuffer, config.yuv());
+    final RandomSeeker seeker =
+        producer instanceof VideoFrameToVertexArray video && config.seekIntervalMillis() > 0
+            ? new RandomSeeker(video, config.seekIntervalMillis())
+            : null;
+    producer.setDaemon(true);
+    consumer.setDaemon(true);
+
+    final SoakReport report = new SoakReport(config);
+    final RuntimeSampler sampler = new RuntimeSampler();
+    final long start = System.nanoTime();
+    producer.start();
+    consumer.start();
+    if (seeker != null) {
+      seeker.setDaemon(true);
+      seeker.start();
+    }
+
+    log.info(String.format("Soak run started: %s", config));
+    final long intervalNanos = TimeUnit.SECONDS.toNanos(config.sampleIntervalSeconds());
+    final long durationNanos = TimeUnit.SECONDS.toNanos(config.durationSeconds());
+    final long warmUpNanos = TimeUnit.SECONDS.toNanos(config.warmUpSeconds());
+    boolean warm = false;
+
+    for (long next = intervalNanos; next <= durationNanos; next += intervalNanos) {
+      TimeUnit.NANOSECONDS.sleep(start + next - System.nanoTime());
+      final SoakSample sample = sampler.sample(next / 1_000_000, consumer);
+      report.add(sample);
+      log.info(String.format("Soak sample: %s", sample));
+
+      if (!warm && next >= warmUpNanos) {
+        report.setBaseline(sampler.getLiveHeapBytes(), sampler.getNativeCommittedBytes());
+        warm = true;
+      }
+      if (!producer.isAlive() || !consumer.isAlive()) {
+        log.severe("A pipeline thread died; ending the soak run early.");
+        break;
+      }
+    }
+
+    report.setFinal(sampler.getLiveHeapBytes(), sampler.getNativeCommittedBytes());
+    report.setTimeToFirstFrame(StartupTimeline.getTimeToFirstFrameNanos());
+    report.setPlacement(
+        placement.getReport(), placement.getAllocator().name().toLowerCase(Locale.ROOT));
+    if (seeker != null) {
+      seeker.interrupt();
+      report.setSeekLatency(seeker.getSeekLatency());
+      log.info(String.format("Seek-to-display latency: %s", seeker.getSeekLatency()));
+    }
+    producer.interrupt();
+    consumer.interrupt();
+    producer.join(SHUTDOWN_TIMEOUT_MS);
+    consumer.join(SHUTDOWN_TIMEOUT_MS);
+    report.write();
+
+    // Native frame memory can only go once nothing touches it anymore
+    if (!producer.isAlive() && !consumer.isAlive()) {
+      frameBuffer.free();
+    }
+    placement.close();
+
+    final List<String> violations = report.getViolations();
+    log.info(String.format("Startup: %s", StartupTimeline.getReport()));
+    log.info(String.format("Soak report written to %s", config.reportPath().toAbsolutePath()));
+    if (!violations.isEmpty()) {
+      violations.forEach(violation -> log.severe(String.format("Soak threshold: %s", violation)));
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,326 @@
+package com.faustech.soak;
+
+import com.faustech.metrics.LatencyRecorder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The outcome of a soak run: its samples, the memory growth after warm-up and the thresholds they
+ * broke. The report is written as JSON so runs of different builds can be compared by tools.
+ */
+@RequiredArgsConstructor
+public class SoakReport {
+
+  private static final double MB = 1024.0 * 1024.0; // Bytes per megabyte
+
+  private final SoakConfig config; // Settings of the run
+
+  @Getter private final List<SoakSample> samples = new ArrayList<>(); // Samples in time order
+
+  private long timeToFirstFrameNanos = -1; // Time until the consumer saw a frame, or -1
+
+  private long baselineHeapBytes = -1; // Live heap after warm-up, or -1 before
+
+  private long finalHeapBytes = -1; // Live heap at the end, or -1 before
+
+  private long baselineNativeBytes = -1; // Committed native memory after warm-up, or -1
+
+  private long finalNativeBytes = -1; // Committed native memory at the end, or -1
+
+  private LatencyRecorder seekLatency; // Seek-to-display latencies, or null without seeking
+
+  private String placement = "unpinned"; // Thread placement applied during the run
+
+  private String allocator = "heap"; // Allocator of the frame memory
+
+  /**
+   * Adds a sample.
+   *
+   * @param sample The sample.
+   */
+  public void add(final SoakSample sample) {
+
+    samples.add(sample);
+  }
+
+  /**
+   * Sets the time until the first frame reached the consumer.
+   *
+   * @param nanos The time in nanoseconds, or -1 if no frame arrived.
+   */
+  public void setTimeToFirstFrame(final long nanos) {
+
+    this.timeToFirstFrameNanos = nanos;
+  }
+
+  /**
+   * Sets the seek-to-display latencies of a run that seeked.
+   *
+   * @param seekLatency The recorded latencies.
+   */
+  public void setSeekLatency(final LatencyRecorder seekLatency) {
+
+    this.seekLatency = seekLatency;
+  }
+
+  /**
+   * Sets where the pipeline ran, so pinned and unpinned runs can be told apart.
+   *
+   * @param placement The thread placement actually applied.
+   * @param allocator The name of the frame memory allocator.
+   */
+  public void setPlacement(final String placement, final String allocator) {
+
+    this.placement = placement;
+    this.allocator = allocator;
+  }
+
+  /**
+   * Sets the memory measured when the warm-up ended.
+   *
+   * @param heapBytes The live heap in bytes.
+   * @param nativeBytes The committed native memory in bytes, or -1 without tracking.
+   */
+  public void setBaseline(final long heapBytes, final long nativeBytes) {
+
+    this.baselineHeapBytes = heapBytes;
+    this.baselineNativeBytes = nativeBytes;
+  }
+
+  /**
+   * Sets the memory measured when the run ended.
+   *
+   * @param heapBytes The live heap in bytes.
+   * @param nativeBytes The committed native memory in bytes, or -1 without tracking.
+   */
+  public void setFinal(final long heapBytes, final long nativeBytes) {
+
+    this.finalHeapBytes = heapBytes;
+    this.finalNativeBytes = nativeBytes;
+  }
+
+  /**
+   * Computes the live heap growth after warm-up.
+   *
+   * @return The growth in megabytes, or 0 if it was not measured.
+   */
+  public double getHeapGrowthMb() {
+
+    return baselineHeapBytes < 0 || finalHeapBytes < 0
+        ? 0
+        : (finalHeapBytes - baselineHeapBytes) / MB;
+  }
+
+  /**
+   * Computes the committed native memory growth after warm-up.
+   *
+   * @return The growth in megabytes, or 0 if native memory tracking is off.
+   */
+  public double getNativeGrowthMb() {
+
+    return baselineNativeBytes < 0 || finalNativeBytes < 0
+        ? 0
+        : (finalNativeBytes - baselineNativeBytes) / MB;
+  }
+
+  /**
+   * Checks the run against the thresholds of its configuration. Samples taken during warm-up are
+   * not checked, since class loading and JIT compilation distort them.
+   *
+   * @return A description of every broken threshold; empty if the run passed.
+   */
+  public List<String> getViolations() {
+
+    final List<String> violations = new ArrayList<>();
+    final long warmUpMillis = config.warmUpSeconds() * 1000;
+
+    for (SoakSample sample : samples) {
+      if (sample.elapsedMillis() <= warmUpMillis) {
+        continue;
+      }
+      if (sample.frames() == 0) {
+        violations.add(String.format("No frames consumed at %d ms", sample.elapsedMillis()));
+      }
+      if (sample.producedFrameRate() < config.minFrameRate()) {
+        violations.add(
+            format(
+                "Produced %.2f fps at %d ms, fewer than %.2f fps",
+                sample.producedFrameRate(), sample.elapsedMillis(), config.minFrameRate()));
+      }
+      if (sample.maxFrameGapMillis() > config.maxFrameGapMillis()) {
+        violations.add(
+            format(
+                "No new frame for %.2f ms at %d ms, longer than %.2f ms",
+                sample.maxFrameGapMillis(), sample.elapsedMillis(), config.maxFrameGapMillis()));
+      }
+      if (sample.p99FrameMillis() > config.maxP99FrameMillis()) {
+        violations.add(
+            format(
+                "p99 frame time %.2f ms at %d ms exceeds %.2f ms",
+                sample.p99FrameMillis(), sample.elapsedMillis(), config.maxP99FrameMillis()));
+      }
+      if (sample.allocationMbPerSecond() > config.maxAllocationMbPerSecond()) {
+        violations.add(
+            format(
+                "Allocation rate %.2f MB/s at %d ms exceeds %.2f MB/s",
+                sample.allocationMbPerSecond(),
+                sample.elapsedMillis(),
+                config.maxAllocationMbPerSecond()));
+      }
+      if (sample.gcPausePercent() > config.maxGcPausePercent()) {
+        violations.add(
+            format(
+                "GC pauses %.2f%% at %d ms exceed %.2f%%",
+                sample.gcPausePercent(), sample.elapsedMillis(), config.maxGcPausePercent()));
+      }
+    }
+
+    if (timeToFirstFrameNanos < 0) {
+      violations.add("No frame reached the consumer");
+    } else if (timeToFirstFrameNanos / 1e6 > config.maxTimeToFirstFrameMillis()) {
+      violations.add(
+          format(
+              "Time to first frame %.2f ms exceeds %.2f ms",
+              timeToFirstFrameNanos / 1e6, config.maxTimeToFirstFrameMillis()));
+    }
+
+    final long lastMillis = samples.isEmpty() ? 0 : samples.getLast().elapsedMillis();
+    if (lastMillis + config.sampleIntervalSeconds() * 1000 <= config.durationSeconds() * 1000) {
+      violations.add(
+          String.format(
+              "Run ended after %d of %d ms", lastMillis, config.durationSeconds() * 1000));
+    }
+    if (getHeapGrowthMb() > config.maxHeapGrowthMb()) {
+      violations.add(
+          format(
+              "Live heap grew %.2f MB, more than %.2f MB",
+              getHeapGrowthMb(), config.maxHeapGrowthMb()));
+    }
+    if (getNativeGrowthMb() > config.maxNativeGrowthMb()) {
+      violations.add(
+          format(
+              "Native memory grew %.2f MB, more than %.2f MB",
+              getNativeGrowthMb(), config.maxNativeGrowthMb()));
+    }
+    return violations;
+  }
+
+  /**
+   * Formats the report as JSON.
+   *
+   * @return The JSON document.
+   */
+  public String toJson() {
+
+    final List<String> violations = getViolations();
+    final StringBuilder json = new StringBuilder("{\n");
+    json.append("  \"build\": ")
+        .append(config.buildId() != null ? quote(config.buildId()) : "null")
+        .append(",\n");
+    json.append("  \"source\": ").append(quote(config.source())).append(",\n");
+    json.append("  \"yuv\": ").append(config.yuv()).append(",\n");
+    json.append("  \"pixelFormat\": ")
+        .append(quote(config.yuv() ? "yuv420" : "rgba"))
+        .append(",\n");
+    json.append("  \"width\": ").append(config.width()).append(",\n");
+    json.append("  \"height\": ").append(config.height()).append(",\n");
+    json.append("  \"durationSeconds\": ").append(config.durationSeconds()).append(",\n");
+    json.append("  \"placement\": ").append(quote(placement)).append(",\n");
+    json.append("  \"allocator\": ").append(quote(allocator)).append(",\n");
+    json.append("  \"javaVersion\": ").append(quote(Runtime.version().toString())).append(",\n");
+    json.append(
+        timeToFirstFrameNanos < 0 // No first frame, reported as a violation
+            ? "  \"timeToFirstFrameMs\": null,\n"
+            : format("  \"timeToFirstFrameMs\": %.3f,\n", timeToFirstFrameNanos / 1e6));
+    if (seekLatency != null) {
+      json.append(
+          format(
+              "  \"seekLatency\": {\"count\":%d,\"p50Ms\":%.3f,\"p95Ms\":%.3f,"
+                  + "\"p99Ms\":%.3f,\"maxMs\":%.3f},\n",
+              seekLatency.getCount(),
+              seekLatency.getPercentileNanos(50) / 1e6,
+              seekLatency.getPercentileNanos(95) / 1e6,
+              seekLatency.getPercentileNanos(99) / 1e6,
+              seekLatency.getMaxNanos() / 1e6));
+    }
+    json.append(format("  \"heapGrowthMb\": %.3f,\n", getHeapGrowthMb()));
+    json.append(format("  \"nativeGrowthMb\": %.3f,\n", getNativeGrowthMb()));
+    json.append("  \"thresholds\": {")
+        .append(format("\"maxTimeToFirstFrameMs\":%.3f,", config.maxTimeToFirstFrameMillis()))
+        .append(format("\"minFrameRate\":%.3f,", config.minFrameRate()))
+        .append(format("\"maxFrameGapMs\":%.3f,", config.maxFrameGapMillis()))
+        .append(format("\"maxP99FrameMs\":%.3f,", config.maxP99FrameMillis()))
+        .append(format("\"maxAllocationMbPerSec\":%.3f,", config.maxAllocationMbPerSecond()))
+        .append(format("\"maxGcPausePercent\":%.3f,", config.maxGcPausePercent()))
+        .append(format("\"maxHeapGrowthMb\":%.3f,", config.maxHeapGrowthMb()))
+        .append(format("\"maxNativeGrowthMb\":%.3f", config.maxNativeGrowthMb()))
+        .append("},\n");
+    json.append("  \"passed\": ").append(violations.isEmpty()).append(",\n");
+
+    json.append("  \"violations\": [");
+    for (int i = 0; i < violations.size(); i++) {
+      json.append(i == 0 ? "\n    " : ",\n    ").append(quote(violations.get(i)));
+    }
+    json.append(violations.isEmpty() ? "],\n" : "\n  ],\n");
+
+    json.append("  \"samples\": [");
+    for (int i = 0; i < samples.size(); i++) {
+      json.append(i == 0 ? "\n    " : ",\n    ").append(samples.get(i).toJson());
+    }
+    json.append(samples.isEmpty() ? "]\n" : "\n  ]\n");
+    return json.append("}\n").toString();
+  }
+
+  /** Writes the report to the path of its configuration. */
+  public void write() {
+
+    try {
+      Files.writeString(config.reportPath(), toJson());
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Error writing soak report: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Formats numbers independently of the default locale, as JSON requires.
+   *
+   * @param format The format string.
+   * @param args The arguments.
+   * @return The formatted string.
+   */
+  private static String format(final String format, final Object... args) {
+
+    return String.format(Locale.ROOT, format, args);
+  }
+
+  /**
+   * Quotes a string as a JSON string literal.
+   *
+   * @param value The string.
+   * @return The quoted and escaped string.
+   */
+  private static String quote(final String value) {
+
+    final StringBuilder quoted = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"' -> quoted.append("\\\"");
+        case '\\' -> quoted.append("\\\\");
+        case '\n' -> quoted.append("\\n");
+        default -> {
+          if (c < 0x20) {
+            quoted.append(String.format("\\u%04x", (int) c));
+          } else {
+            quoted.append(c);
+          }
+        }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+}
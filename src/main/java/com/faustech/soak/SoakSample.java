@@ -0,0 +1,69 @@
+package com.faustech.soak;
+
+import java.util.Locale;
+import lombok.Builder;
+
+/**
+ * The state of the process over one sample interval of a soak run.
+ *
+ * @param elapsedMillis The time since the run started, at the end of the interval.
+ * @param frames The number of new frames the consumer read during the interval.
+ * @param producedFrameRate The rate at which the producer swapped in frames over the interval.
+ * @param p50FrameMillis The median frame time of the interval.
+ * @param p99FrameMillis The 99th percentile frame time of the interval.
+ * @param maxFrameMillis The longest frame of the interval.
+ * @param maxFrameGapMillis The longest time without a new frame, including the time since the last
+ *     one when the interval ended.
+ * @param allocationMbPerSecond The Java heap allocation rate over the interval.
+ * @param gcPauseMillis The time spent in GC pauses during the interval.
+ * @param gcPausePercent The share of the interval spent in GC pauses.
+ * @param heapUsedBytes The used Java heap at the end of the interval.
+ * @param directBytes The memory held by direct byte buffers at the end of the interval.
+ * @param nativeCommittedBytes The committed native memory reported by native memory tracking, or
+ *     -1 when tracking is off.
+ */
+@Builder
+public record SoakSample(
+    long elapsedMillis,
+    long frames,
+    double producedFrameRate,
+    double p50FrameMillis,
+    double p99FrameMillis,
+    double maxFrameMillis,
+    double maxFrameGapMillis,
+    double allocationMbPerSecond,
+    long gcPauseMillis,
+    double gcPausePercent,
+    long heapUsedBytes,
+    long directBytes,
+    long nativeCommittedBytes) {
+
+  /**
+   * Formats the sample as a JSON object.
+   *
+   * @return The JSON object on one line.
+   */
+  public String toJson() {
+
+    return String.format(
+        Locale.ROOT,
+        "{\"elapsedMs\":%d,\"frames\":%d,\"producedFps\":%.3f,\"p50FrameMs\":%.3f,"
+            + "\"p99FrameMs\":%.3f,\"maxFrameMs\":%.3f,\"maxFrameGapMs\":%.3f,"
+            + "\"allocationMbPerSec\":%.3f,\"gcPauseMs\":%d,"
+            + "\"gcPausePercent\":%.3f,\"heapUsedBytes\":%d,\"directBytes\":%d,"
+            + "\"nativeCommittedBytes\":%d}",
+        elapsedMillis,
+        frames,
+        producedFrameRate,
+        p50FrameMillis,
+        p99FrameMillis,
+        maxFrameMillis,
+        maxFrameGapMillis,
+        allocationMbPerSecond,
+        gcPauseMillis,
+        gcPausePercent,
+        heapUsedBytes,
+        directBytes,
+        nativeCommittedBytes);
+  }
+}
@@ -0,0 +1,80 @@
+package com.faustech.soak;
+
+import com.faustech.gpu.StartupEvent;
+import com.faustech.gpu.StartupTimeline;
+import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.MemoryException;
+import com.faustech.topology.PipelineRole;
+import com.faustech.topology.ThreadPlacement;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This thread feeds the frame buffer with a moving gradient in planar YUV420 at 60 fps, so a soak
+ * run needs no video file and measures the pipeline rather than the decoder.
+ */
+@RequiredArgsConstructor
+public class SyntheticFrameSource extends Thread {
+
+  private static final long FRAME_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1) / 60;
+
+  private final int width; // Frame width
+
+  private final int height; // Frame height
+
+  private final FrameBuffer frameBuffer; // Frame buffer to write the generated frames
+
+  /** Entry point for the thread; generates frames until interrupted. */
+  @Override
+  public void run() {
+
+    ThreadPlacement.pinCurrentThread(PipelineRole.DECODE);
+    StartupTimeline.record(StartupEvent.DECODER_OPENED);
+
+    final ByteBuffer frame = ByteBuffer.allocateDirect(FrameBuffer.getYuvBufferSize());
+    long deadline = System.nanoTime();
+    int index = 0;
+    boolean firstFrameWritten = false;
+
+    try {
+      while (!isInterrupted()) {
+        fill(frame, index++);
+        frameBuffer.writeToYuvBuffer(0, frame, 0, frame.capacity());
+        if (!firstFrameWritten) {
+          // Recorded before the swap, so the consumer cannot present the frame first
+          StartupTimeline.record(StartupEvent.FIRST_FRAME_WRITTEN);
+          firstFrameWritten = true;
+        }
+        frameBuffer.swap();
+
+        deadline = Math.max(deadline + FRAME_INTERVAL_NS, System.nanoTime());
+        LockSupport.parkNanos(deadline - System.nanoTime());
+      }
+    } catch (MemoryException e) {
+      throw new RuntimeException(
+          String.format("Error writing synthetic frame: %s", e.getMessage()));
+    }
+  }
+
+  /**
+   * Draws one frame of the gradient, shifted by the frame index.
+   *
+   * @param frame The buffer receiving the Y, U and V planes.
+   * @param index The frame index.
+   */
+  private void fill(final ByteBuffer frame, final int index) {
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        frame.put(y * width + x, (byte) (x + y + index));
+      }
+    }
+    final int chroma = width * height / 4;
+    for (int i = 0; i < chroma; i++) {
+      frame.put(width * height + i, (byte) (128 + index));
+      frame.put(width * height + chroma + i, (byte) (128 - index));
+    }
+  }
+}
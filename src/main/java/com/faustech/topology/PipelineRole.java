@@ -0,0 +1,18 @@
+package com.faustech.topology;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The pipeline threads that can be placed on a chosen core. Single threads are pinned to the core;
+ * pools serving the role are spread over that core's NUMA node.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PipelineRole {
+  DECODE("placement.decode"), // The producer thread, and the parallel decoder pool
+  CONVERT("placement.convert"), // The effect band pool that converts RGBA frames into the buffer
+  RENDER("placement.render"); // The thread owning the OpenGL context
+
+  private final String property; // System property holding the logical core index
+}
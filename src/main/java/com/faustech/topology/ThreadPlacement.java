@@ -0,0 +1,318 @@
+package com.faustech.topology;
+
+import com.faustech.memory.FrameAllocator;
+import com.faustech.memory.MemoryException;
+import com.faustech.memory.NativeAllocator;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * Optional placement of the pipeline threads and frame memory. Each role can be pinned to a core
+ * with a system property such as {@code -Dplacement.render=3}; thread pools serving a role are
+ * spread over that core's NUMA node instead. A native allocator such as {@code
+ * -Dplacement.allocator=jemalloc} moves frame memory next to the decode core's NUMA node. Without
+ * any property the pipeline runs unpinned on the Java heap.
+ */
+@Log
+public class ThreadPlacement implements FrameAllocator, AutoCloseable {
+
+  private static final String ALLOCATOR_PROPERTY = "placement.allocator";
+
+  private static volatile ThreadPlacement installed; // Placement used by the pipeline threads
+
+  private final Topology topology; // Loaded only when a core was requested
+
+  private final Map<PipelineRole, Integer> cores; // Requested logical core per role
+
+  private final Map<PipelineRole, String> pinned = new EnumMap<>(PipelineRole.class);
+
+  @Getter private final NativeAllocator allocator; // Allocator for frame memory
+
+  @Getter private final int numaNode; // NUMA node frame memory is bound to, or -1
+
+  private boolean closed; // Whether the topology was released
+
+  /**
+   * Constructs a placement.
+   *
+   * @param topology The machine topology, or null to leave threads and memory unbound.
+   * @param cores The requested logical core per role.
+   * @param allocator The allocator for frame memory.
+   */
+  public ThreadPlacement(
+      final Topology topology,
+      final Map<PipelineRole, Integer> cores,
+      final NativeAllocator allocator) {
+
+    this.topology = topology;
+    this.cores = cores;
+    this.allocator = allocator;
+    this.numaNode = topology != null && allocator != NativeAllocator.HEAP ? localNode() : -1;
+  }
+
+  /**
+   * Reads the placement from the {@code placement.*} system properties.
+   *
+   * @return The requested placement, unpinned if hwloc is unavailable.
+   */
+  public static ThreadPlacement fromSystemProperties() {
+
+    return fromProperties(System.getProperties(), Topology::new);
+  }
+
+  /**
+   * Reads the placement from {@code placement.*} properties.
+   *
+   * @param properties The properties to read.
+   * @param topologyLoader Loads the machine topology; only called when a core was requested.
+   * @return The requested placement, unpinned if the topology cannot be loaded.
+   * @throws IllegalArgumentException If a core or the allocator is not valid.
+   */
+  static ThreadPlacement fromProperties(
+      final Properties properties, final Supplier<Topology> topologyLoader) {
+
+    final Map<PipelineRole, Integer> cores = new EnumMap<>(PipelineRole.class);
+    for (PipelineRole role : PipelineRole.values()) {
+      final String core = properties.getProperty(role.getProperty());
+      if (core != null) {
+        cores.put(role, parseCore(role.getProperty(), core));
+      }
+    }
+    final String allocatorName = properties.getProperty(ALLOCATOR_PROPERTY, "heap");
+    final NativeAllocator allocator;
+    try {
+      allocator = NativeAllocator.valueOf(allocatorName.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid %s '%s', expected heap, jemalloc or rpmalloc",
+              ALLOCATOR_PROPERTY, allocatorName));
+    }
+
+    Topology topology = null;
+    if (!cores.isEmpty()) {
+      try {
+        topology = topologyLoader.get();
+      } catch (RuntimeException | LinkageError e) {
+        log.warning(String.format("hwloc unavailable, running unpinned: %s", e.getMessage()));
+        cores.clear();
+      }
+    }
+    return new ThreadPlacement(topology, cores, allocator);
+  }
+
+  /**
+   * Parses a logical core index.
+   *
+   * @param property The property holding the core.
+   * @param value The property value.
+   * @return The core index.
+   * @throws IllegalArgumentException If the value is not a non-negative integer.
+   */
+  private static int parseCore(final String property, final String value) {
+
+    try {
+      final int core = Integer.parseInt(value.trim());
+      if (core >= 0) {
+        return core;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException(
+        String.format("Invalid %s '%s', expected a logical core index", property, value));
+  }
+
+  /**
+   * Returns the core requested for a role.
+   *
+   * @param role The pipeline role.
+   * @return The logical core index, or null if the role runs unpinned.
+   */
+  public Integer getCore(final PipelineRole role) {
+
+    return cores.get(role);
+  }
+
+  /**
+   * Makes a placement the one applied by {@link #pinCurrentThread(PipelineRole)}.
+   *
+   * @param placement The placement to install.
+   */
+  public static void install(final ThreadPlacement placement) {
+
+    installed = placement;
+  }
+
+  /**
+   * Pins the calling thread according to the installed placement. Does nothing when no placement is
+   * installed or no core was requested for the role.
+   *
+   * @param role The role of the calling thread.
+   */
+  public static void pinCurrentThread(final PipelineRole role) {
+
+    final ThreadPlacement placement = installed;
+    if (placement != null) {
+      placement.pin(role);
+    }
+  }
+
+  /**
+   * Binds a pool thread according to the installed placement: to every core of the NUMA node
+   * holding the core requested for its role, so the pool keeps its parallelism. Does nothing when
+   * no placement is installed or no core was requested for the role.
+   *
+   * @param role The role of the calling thread.
+   */
+  public static void pinCurrentThreadToNode(final PipelineRole role) {
+
+    final ThreadPlacement placement = installed;
+    if (placement != null) {
+      placement.pinToNode(role);
+    }
+  }
+
+  /**
+   * Pins the calling thread to the core requested for a role.
+   *
+   * @param role The role of the calling thread.
+   */
+  public synchronized void pin(final PipelineRole role) {
+
+    final Integer core = cores.get(role);
+    if (core == null || topology == null || closed) {
+      return;
+    }
+
+    try {
+      topology.bindCurrentThreadToCore(core);
+      record(
+          role,
+          String.format(
+              "core %d (os %d, node %d)",
+              core, topology.getCoreOsIndex(core), topology.getNumaNodeOfCore(core)));
+    } catch (RuntimeException e) {
+      log.warning(String.format("Could not pin %s thread: %s", role, e.getMessage()));
+    }
+  }
+
+  /**
+   * Binds the calling pool thread to the NUMA node of the core requested for a role.
+   *
+   * @param role The role of the calling thread.
+   */
+  public synchronized void pinToNode(final PipelineRole role) {
+
+    final Integer core = cores.get(role);
+    if (core == null || topology == null || closed) {
+      return;
+    }
+
+    try {
+      final int node = topology.getNumaNodeOfCore(core);
+      topology.bindCurrentThreadToNumaNode(node);
+      record(role, String.format("node %d", node));
+    } catch (RuntimeException e) {
+      log.warning(String.format("Could not bind %s thread: %s", role, e.getMessage()));
+    }
+  }
+
+  /**
+   * Remembers where a thread of a role was placed.
+   *
+   * @param role The role of the calling thread.
+   * @param placement The description of the placement.
+   */
+  private void record(final PipelineRole role, final String placement) {
+
+    synchronized (pinned) {
+      pinned.merge(
+          role, placement, (first, next) -> first.contains(next) ? first : first + ", " + next);
+    }
+    log.info(
+        String.format(
+            "Pinned %s thread %s to %s", role, Thread.currentThread().getName(), placement));
+  }
+
+  /**
+   * Allocates frame memory from the configured allocator, bound to the local NUMA node.
+   *
+   * @param size The size in bytes.
+   * @return The allocated buffer.
+   * @throws MemoryException If the memory cannot be allocated.
+   */
+  @Override
+  public synchronized ByteBuffer allocate(final int size) throws MemoryException {
+
+    final ByteBuffer buffer = allocator.allocate(size);
+    if (numaNode >= 0 && !closed && !topology.bindToNumaNode(buffer, numaNode)) {
+      log.warning(String.format("Could not bind frame memory to NUMA node %d", numaNode));
+    }
+    return buffer;
+  }
+
+  /**
+   * Releases frame memory to the configured allocator.
+   *
+   * @param buffer The buffer to release.
+   */
+  @Override
+  public void free(final ByteBuffer buffer) {
+
+    allocator.free(buffer);
+  }
+
+  /**
+   * Describes the placement actually applied so far, for logs and benchmark reports.
+   *
+   * @return A one-line summary per role plus the allocator.
+   */
+  public String getReport() {
+
+    final StringJoiner report = new StringJoiner(", ");
+    synchronized (pinned) {
+      for (PipelineRole role : PipelineRole.values()) {
+        final String placement = pinned.getOrDefault(role, "unpinned");
+        report.add(String.format("%s: %s", role.name().toLowerCase(), placement));
+      }
+    }
+    report.add(
+        String.format(
+            "allocator: %s%s",
+            allocator.name().toLowerCase(), numaNode >= 0 ? " on node " + numaNode : ""));
+    return report.toString();
+  }
+
+  /**
+   * Releases the topology. Threads started afterwards stay unpinned, and frame memory allocated
+   * afterwards is no longer bound to a NUMA node.
+   */
+  @Override
+  public synchronized void close() {
+
+    if (topology != null && !closed) {
+      topology.close();
+    }
+    closed = true;
+  }
+
+  /**
+   * Picks the NUMA node frame memory should live on: the decode core's node, since the decoding
+   * thread writes every byte, falling back to the render core's node.
+   *
+   * @return The logical NUMA node index, or -1 if no core was requested.
+   */
+  private int localNode() {
+
+    final Integer core = cores.getOrDefault(PipelineRole.DECODE, cores.get(PipelineRole.RENDER));
+    return core == null ? -1 : topology.getNumaNodeOfCore(core);
+  }
+}
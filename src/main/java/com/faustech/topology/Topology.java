@@ -0,0 +1,151 @@
+package com.faustech.topology;
+
+import java.nio.ByteBuffer;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.hwloc.HWLoc;
+import org.lwjgl.util.hwloc.hwloc_obj;
+
+/** Reads the machine topology through hwloc and binds threads and memory to parts of it. */
+public class Topology implements AutoCloseable {
+
+  private final long topology; // Native hwloc topology handle
+
+  /** Loads the topology of the current machine. */
+  public Topology() {
+
+    try (MemoryStack stack = MemoryStack.stackPush()) {
+      PointerBuffer handle = stack.mallocPointer(1);
+      if (HWLoc.hwloc_topology_init(handle) != 0) {
+        throw new IllegalStateException("Failed to initialize hwloc topology");
+      }
+      topology = handle.get(0);
+    }
+    if (HWLoc.hwloc_topology_load(topology) != 0) {
+      HWLoc.hwloc_topology_destroy(topology);
+      throw new IllegalStateException("Failed to load hwloc topology");
+    }
+  }
+
+  /**
+   * Returns the number of physical cores.
+   *
+   * @return The core count.
+   */
+  public int getCoreCount() {
+
+    return HWLoc.hwloc_get_nbobjs_by_type(topology, HWLoc.HWLOC_OBJ_CORE);
+  }
+
+  /**
+   * Returns the number of NUMA nodes.
+   *
+   * @return The NUMA node count, at least 1.
+   */
+  public int getNumaNodeCount() {
+
+    return Math.max(1, HWLoc.hwloc_get_nbobjs_by_type(topology, HWLoc.HWLOC_OBJ_NUMANODE));
+  }
+
+  /**
+   * Returns the operating system index of a core.
+   *
+   * @param core The logical core index.
+   * @return The OS core index.
+   */
+  public int getCoreOsIndex(final int core) {
+
+    return getCore(core).os_index();
+  }
+
+  /**
+   * Finds the NUMA node local to a core by walking up to the first ancestor that has memory
+   * attached.
+   *
+   * @param core The logical core index.
+   * @return The logical NUMA node index, or 0 on machines without NUMA information.
+   */
+  public int getNumaNodeOfCore(final int core) {
+
+    for (hwloc_obj obj = getCore(core); obj != null; obj = obj.parent()) {
+      if (obj.memory_arity() > 0 && obj.memory_first_child() != null) {
+        return obj.memory_first_child().logical_index();
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Binds the calling thread to the CPUs of a core.
+   *
+   * @param core The logical core index.
+   */
+  public void bindCurrentThreadToCore(final int core) {
+
+    if (HWLoc.hwloc_set_cpubind(topology, getCore(core).cpuset(), HWLoc.HWLOC_CPUBIND_THREAD)
+        != 0) {
+      throw new IllegalStateException(String.format("Failed to bind thread to core %d", core));
+    }
+  }
+
+  /**
+   * Binds the calling thread to every CPU of a NUMA node, so the threads of a pool share the node's
+   * cores instead of queueing on one.
+   *
+   * @param node The logical NUMA node index.
+   */
+  public void bindCurrentThreadToNumaNode(final int node) {
+
+    final hwloc_obj numaNode =
+        HWLoc.hwloc_get_obj_by_type(topology, HWLoc.HWLOC_OBJ_NUMANODE, node);
+    if (numaNode == null
+        || HWLoc.hwloc_set_cpubind(topology, numaNode.cpuset(), HWLoc.HWLOC_CPUBIND_THREAD) != 0) {
+      throw new IllegalStateException(String.format("Failed to bind thread to NUMA node %d", node));
+    }
+  }
+
+  /**
+   * Binds the pages of a native buffer to a NUMA node, migrating any already touched.
+   *
+   * @param buffer The direct buffer to bind.
+   * @param node The logical NUMA node index.
+   * @return true if the memory was bound, false if the system does not support binding.
+   */
+  public boolean bindToNumaNode(final ByteBuffer buffer, final int node) {
+
+    hwloc_obj numaNode = HWLoc.hwloc_get_obj_by_type(topology, HWLoc.HWLOC_OBJ_NUMANODE, node);
+    if (numaNode == null || !buffer.isDirect()) {
+      return false;
+    }
+    return HWLoc.hwloc_set_area_membind(
+            topology,
+            buffer,
+            numaNode.nodeset(),
+            HWLoc.HWLOC_MEMBIND_BIND,
+            HWLoc.HWLOC_MEMBIND_BYNODESET | HWLoc.HWLOC_MEMBIND_MIGRATE)
+        == 0;
+  }
+
+  /**
+   * Looks up a core object.
+   *
+   * @param core The logical core index.
+   * @return The hwloc core object.
+   */
+  private hwloc_obj getCore(final int core) {
+
+    hwloc_obj obj = HWLoc.hwloc_get_obj_by_type(topology, HWLoc.HWLOC_OBJ_CORE, core);
+    if (obj == null) {
+      throw new IllegalArgumentException(
+          String.format("Core %d does not exist (%d cores)", core, getCoreCount()));
+    }
+    return obj;
+  }
+
+  /** Releases the native topology. */
+  @Override
+  public void close() {
+
+    HWLoc.hwloc_topology_destroy(topology);
+  }
+}
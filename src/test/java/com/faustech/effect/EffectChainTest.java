@@ -0,0 +1,56 @@
+package com.faustech.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Checks the parsing of the {@code -Deffects} chain. */
+class EffectChainTest {
+
+  /** Each effect takes its record components in order. */
+  @Test
+  void parsesEffects() {
+
+    assertEquals(
+        List.of(
+            new BrightnessContrast(0.05f, 1.1f),
+            new ColorGrade(1, 1, 1.1f, 0.9f),
+            new Sharpen(0.3f)),
+        EffectChain.parse(" brightnessContrast=0.05:1.1, colorGrade=1:1:1.1:0.9,,sharpen=0.3")
+            .getEffects());
+  }
+
+  /** Missing, extra or unparsable arguments are rejected with the effect named. */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "brightnessContrast=0.1",
+        "brightnessContrast",
+        "colorGrade=1:1:1",
+        "sharpen=0.1:0.2",
+        "sharpen=",
+        "colorGrade=1:1:1:",
+        "brightnessContrast=0.1:x"
+      })
+  void rejectsWrongArguments(final String spec) {
+
+    final String name = spec.split("=")[0];
+    final IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EffectChain.parse(spec));
+    assertTrue(e.getMessage().contains(name), e.getMessage());
+  }
+
+  /** An unknown effect is rejected before its arguments are looked at. */
+  @Test
+  void rejectsUnknownEffect() {
+
+    final IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EffectChain.parse("blur=2"));
+    assertEquals("Unknown effect: blur", e.getMessage());
+  }
+}
@@ -0,0 +1,156 @@
+package com.faustech.effect;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Golden tests: the fused band-parallel pass must match the sequential reference bit for bit. */
+class FusedEffectPassTest {
+
+  private static final String[] CHAINS = {
+    "brightnessContrast=0.05:1.1,colorGrade=1.1:0.9:1.05:0.8", // Pixel effects only
+    "sharpen=0.6", // Sharpen only
+    "brightnessContrast=-0.1:1.3,sharpen=0.4,colorGrade=1:1.2:0.8:1.1", // Tables on both sides
+    "sharpen=1.5,brightnessContrast=0.2:0.7" // Sharpen first, with clamping
+  };
+
+  private static final int[][] GEOMETRIES = {
+    {17, 1, 1}, // Single row: row 0 is also height - 1
+    {17, 2, 3}, // More bands than rows
+    {33, 7, 2}, // Uneven bands
+    {64, 48, 4},
+    {5, 13, 8} // One row per band
+  };
+
+  /** Random frames of every geometry match the reference for the given chain. */
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3})
+  void randomFramesMatchReference(final int chainIndex) throws InterruptedException {
+
+    final EffectChain chain = EffectChain.parse(CHAINS[chainIndex]);
+    final Random random = new Random(chainIndex);
+
+    for (int[] geometry : GEOMETRIES) {
+      final int width = geometry[0];
+      final int height = geometry[1];
+      final int[] pixels = new int[width * height];
+      for (int i = 0; i < pixels.length; i++) {
+        pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+      }
+
+      assertArrayEquals(
+          chain.applySequentially(pixels, width, height),
+          applyFused(chain, pixels, width, height, geometry[2]),
+          String.format(
+              "%s on %dx%d with %d threads", CHAINS[chainIndex], width, height, geometry[2]));
+    }
+  }
+
+  /**
+   * Stripes that flip at every band boundary, and at rows 0 and height - 1, make any band that
+   * reads the wrong neighbour row produce a different result.
+   */
+  @Test
+  void bandBoundariesMatchReference() throws InterruptedException {
+
+    final int width = 9;
+    final int height = 20;
+    final int threads = 3;
+    final int bands = Math.min(height, threads * 2);
+    final int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      boolean boundary = y == 0 || y == height - 1;
+      for (int band = 1; band < bands; band++) {
+        final int firstRow = band * height / bands;
+        boundary |= y == firstRow || y == firstRow - 1;
+      }
+      final int value = boundary ? (y % 2 == 0 ? 0xFFFFFF : 0x000000) : 0x808080;
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = 0xFF000000 | (value ^ (x * 0x010203));
+      }
+    }
+
+    for (String spec : CHAINS) {
+      final EffectChain chain = EffectChain.parse(spec);
+      assertArrayEquals(
+          chain.applySequentially(pixels, width, height),
+          applyFused(chain, pixels, width, height, threads),
+          spec);
+    }
+  }
+
+  /** A chain with two sharpens cannot be fused and is rejected when compiled. */
+  @Test
+  void secondSharpenIsRejected() {
+
+    final EffectChain chain = EffectChain.parse("sharpen=0.2,brightnessContrast=0:1,sharpen=0.3");
+    assertThrows(IllegalArgumentException.class, () -> chain.compile(2));
+  }
+
+  /** An interrupted pass throws instead of returning a frame with rows missing. */
+  @Test
+  void interruptedPassThrows() {
+
+    final Thread caller = Thread.currentThread();
+    final int width = 16;
+    final int height = 64;
+    try (FusedEffectPass pass = EffectChain.parse(CHAINS[0]).compile(2)) {
+      assertThrows(
+          InterruptedException.class,
+          () ->
+              pass.apply(
+                  new int[width * height],
+                  width,
+                  height,
+                  (y, row, offset) -> {
+                    if (y == 0) {
+                      caller.interrupt(); // Arrives while the caller waits for this band
+                    }
+                  }));
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  /**
+   * Runs the fused pass, checking every row is delivered exactly once.
+   *
+   * @param chain The chain to compile.
+   * @param pixels The frame as packed ARGB.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param threads The number of threads sharing the pass.
+   * @return The processed frame.
+   */
+  private static int[] applyFused(
+      final EffectChain chain,
+      final int[] pixels,
+      final int width,
+      final int height,
+      final int threads)
+      throws InterruptedException {
+
+    final int[] out = new int[pixels.length];
+    final AtomicIntegerArray deliveries = new AtomicIntegerArray(height);
+    try (FusedEffectPass pass = chain.compile(threads)) {
+      pass.apply(
+          pixels,
+          width,
+          height,
+          (y, row, offset) -> {
+            System.arraycopy(row, offset, out, y * width, width);
+            deliveries.incrementAndGet(y);
+          });
+    }
+    for (int y = 0; y < height; y++) {
+      assertEquals(1, deliveries.get(y), "deliveries of row " + y);
+    }
+    return out;
+  }
+}
@@ -0,0 +1,76 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.faustech.memory.Yuv420;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Checks the packed planes against the plane pointers FFmpeg reports for the decoded frame. */
+class DecodedYuvLayoutTest {
+
+  @TempDir Path directory;
+
+  /** Odd sizes round the chroma planes up and pad the strides; the copy must follow FFmpeg. */
+  @Test
+  void matchesFfmpegPlanes() throws Exception {
+
+    final Path video = directory.resolve("clip.mp4");
+    TestClips.encode(video, 64, 48, 5, 5);
+
+    for (int[] size : new int[][] {{64, 48}, {317, 237}, {330, 237}}) {
+      try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+        grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        grabber.setImageWidth(size[0]);
+        grabber.setImageHeight(size[1]);
+        grabber.start();
+        final Frame frame = grabber.grabImage();
+
+        final byte[] actual = new byte[Yuv420.frameSize(size[0], size[1])];
+        Yuv420.copyPlanes(
+            (ByteBuffer) frame.image[0],
+            frame.imageStride,
+            size[0],
+            size[1],
+            ByteBuffer.wrap(actual),
+            0);
+
+        assertArrayEquals(
+            pack((AVFrame) frame.opaque, size[0], size[1]), actual, size[0] + "x" + size[1]);
+        grabber.stop();
+      }
+    }
+  }
+
+  /**
+   * Packs a frame by following FFmpeg's own plane pointers and strides.
+   *
+   * @param picture The decoded frame.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @return The packed frame.
+   */
+  private static byte[] pack(final AVFrame picture, final int width, final int height) {
+
+    final byte[] packed = new byte[Yuv420.frameSize(width, height)];
+    int address = 0;
+    for (int plane = 0; plane < 3; plane++) {
+      final int planeWidth = plane == 0 ? width : width / 2;
+      final int planeHeight = plane == 0 ? height : height / 2;
+      final BytePointer data = picture.data(plane);
+      for (int y = 0; y < planeHeight; y++) {
+        data.position((long) y * picture.linesize(plane)).get(packed, address, planeWidth);
+        address += planeWidth;
+      }
+      data.position(0);
+    }
+    return packed;
+  }
+}
@@ -0,0 +1,104 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the keyframe cache lives in its cache directory, and that a damaged cache is rebuilt
+ * rather than trusted or fatal.
+ */
+class KeyframeIndexTest {
+
+  private static final int GOP_SIZE = 10;
+
+  @TempDir static Path directory;
+
+  private static Path video;
+
+  private static Path cacheDirectory;
+
+  private static Path cache;
+
+  /** Encodes a clip and indexes it once, leaving a valid cache in the cache directory. */
+  @BeforeAll
+  static void generateClip() throws Exception {
+
+    video = directory.resolve("clip.mp4");
+    cacheDirectory = directory.resolve("cache");
+    cache = KeyframeIndex.cacheFile(video, cacheDirectory);
+    TestClips.encode(video, 32, 32, 40, GOP_SIZE);
+    load();
+  }
+
+  /** Videos of the same name in different directories get their own cache files. */
+  @Test
+  void cacheIsKeyedOnThePath() {
+
+    assertTrue(Files.isRegularFile(cache));
+    assertEquals(cacheDirectory, cache.getParent());
+    assertNotEquals(
+        cache, KeyframeIndex.cacheFile(directory.resolve("other/clip.mp4"), cacheDirectory));
+  }
+
+  /** A cache cut off in the header or in the timestamps is rebuilt and rewritten. */
+  @Test
+  void truncatedCacheIsRebuilt() throws IOException {
+
+    final byte[] valid = Files.readAllBytes(cache);
+    final KeyframeIndex expected = load();
+
+    for (int length : new int[] {0, 6, 30, valid.length - 3}) {
+      Files.write(cache, Arrays.copyOf(valid, length));
+      assertEquals(expected.size(), load().size(), "at " + length);
+      assertEquals(valid.length, Files.size(cache), "cache rewritten after " + length);
+    }
+  }
+
+  /** A keyframe count that does not match the file is not trusted. */
+  @Test
+  void corruptCountIsRebuilt() throws IOException {
+
+    final byte[] valid = Files.readAllBytes(cache);
+    final byte[] corrupt = valid.clone();
+    corrupt[32] = (byte) 0x7F; // Most significant byte of the keyframe count
+    Files.write(cache, corrupt);
+
+    assertEquals((valid.length - 36) / 8, load().size());
+    assertEquals(valid.length, Files.size(cache));
+  }
+
+  /** Writing the cache leaves no temporary files behind, and nothing beside the video. */
+  @Test
+  void cacheWriteLeavesNoTemporaryFiles() throws IOException {
+
+    Files.delete(cache);
+    load();
+
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      assertEquals(1, files.count());
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(2, files.count()); // The video and the cache directory
+    }
+  }
+
+  /**
+   * Loads the index of the clip through the test's cache directory.
+   *
+   * @return The keyframe index.
+   */
+  private static KeyframeIndex load() {
+
+    return KeyframeIndex.load(video.toString(), cacheDirectory);
+  }
+}
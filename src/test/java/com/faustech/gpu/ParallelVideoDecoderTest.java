@@ -0,0 +1,100 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.faustech.dto.DecodedFrameDto;
+import com.faustech.memory.Yuv420;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Decodes a generated clip in parallel and compares it with a plain single-grabber decode. */
+class ParallelVideoDecoderTest {
+
+  private static final int WIDTH = 64;
+
+  private static final int HEIGHT = 48;
+
+  private static final int FRAMES = 120; // Twelve GOPs
+
+  private static final int GOP_SIZE = 10;
+
+  @TempDir static Path directory;
+
+  private static Path video;
+
+  /** Encodes the clip shared by the tests. */
+  @BeforeAll
+  static void generateClip() throws Exception {
+
+    video = directory.resolve("clip.mp4");
+    TestClips.encode(video, WIDTH, HEIGHT, FRAMES, GOP_SIZE);
+  }
+
+  /** The parallel decode yields the same frames, in the same order, as one grabber does. */
+  @Test
+  void matchesSingleGrabberDecode() throws Exception {
+
+    final List<DecodedFrameDto> expected = decodeSequentially();
+    final List<DecodedFrameDto> actual = new ArrayList<>();
+    final ParallelVideoDecoder decoder =
+        new ParallelVideoDecoder(video.toString(), WIDTH, HEIGHT, 3);
+    final long count = decoder.decode(actual::add);
+
+    // The encoder may add keyframes on scene cuts, but never fewer than one per GOP
+    assertTrue(KeyframeIndex.load(video.toString()).size() >= FRAMES / GOP_SIZE);
+    assertEquals(FRAMES, expected.size());
+    assertEquals(expected.size(), count);
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).timestamp(), actual.get(i).timestamp(), "timestamp of " + i);
+      assertArrayEquals(expected.get(i).yuv(), actual.get(i).yuv(), "pixels of frame " + i);
+    }
+  }
+
+  /** A decoder without threads is rejected up front. */
+  @Test
+  void rejectsZeroThreads() {
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ParallelVideoDecoder(video.toString(), WIDTH, HEIGHT, 0).decode(frame -> {}));
+  }
+
+  /**
+   * Decodes the clip front to back on one grabber.
+   *
+   * @return The frames in presentation order.
+   * @throws Exception If the clip cannot be decoded.
+   */
+  private static List<DecodedFrameDto> decodeSequentially() throws Exception {
+
+    final List<DecodedFrameDto> frames = new ArrayList<>();
+    try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+      grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+      grabber.setImageWidth(WIDTH);
+      grabber.setImageHeight(HEIGHT);
+      grabber.start();
+
+      Frame frame;
+      while ((frame = grabber.grabImage()) != null) {
+        final byte[] yuv = new byte[Yuv420.frameSize(WIDTH, HEIGHT)];
+        Yuv420.copyPlanes(
+            (ByteBuffer) frame.image[0], frame.imageStride, WIDTH, HEIGHT, ByteBuffer.wrap(yuv), 0);
+        frames.add(DecodedFrameDto.builder().timestamp(frame.timestamp).yuv(yuv).build());
+      }
+      grabber.stop();
+    }
+    return frames;
+  }
+}
@@ -0,0 +1,78 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.Test;
+
+/** Checks the byte budget of the seek cache. */
+class SeekCacheTest {
+
+  private static final long FRAME_INTERVAL = 40_000; // 25 fps
+
+  /** Old frames are evicted once the cached bytes would exceed the budget. */
+  @Test
+  void evictsOldestBeyondBudget() {
+
+    final long frameBytes = SeekCache.sizeOf(frame(0));
+    final SeekCache cache = new SeekCache(frameBytes * 3);
+    for (int i = 0; i < 5; i++) {
+      cache.put(frame(i * FRAME_INTERVAL));
+    }
+
+    assertEquals(frameBytes * 3, cache.getSizeBytes());
+    assertNull(cache.get(FRAME_INTERVAL, FRAME_INTERVAL));
+    assertNotNull(cache.get(2 * FRAME_INTERVAL, FRAME_INTERVAL));
+    assertNotNull(cache.get(4 * FRAME_INTERVAL + 1, FRAME_INTERVAL));
+
+    cache.clear();
+    assertEquals(0, cache.getSizeBytes());
+    assertNull(cache.get(4 * FRAME_INTERVAL, FRAME_INTERVAL));
+  }
+
+  /** Without a budget nothing is copied, and a frame larger than the budget is skipped. */
+  @Test
+  void disabledOrTooSmallCachesNothing() {
+
+    final SeekCache disabled = new SeekCache(0);
+    disabled.put(frame(0));
+    assertEquals(0, disabled.getSizeBytes());
+
+    final SeekCache small = new SeekCache(SeekCache.sizeOf(frame(0)) - 1);
+    small.put(frame(0));
+    assertNull(small.get(0, FRAME_INTERVAL));
+  }
+
+  /** Planes past the buffer limit, like the chroma of a decoded YUV420 frame, are cached too. */
+  @Test
+  void copiesPlanesPastTheLimit() {
+
+    final Frame frame = new Frame(16, 12, Frame.DEPTH_UBYTE, 1); // Luma of 16x8 plus chroma
+    final ByteBuffer planes = (ByteBuffer) frame.image[0];
+    planes.put(150, (byte) 42).limit(16 * 8);
+
+    final SeekCache cache = new SeekCache(1 << 20);
+    cache.put(frame);
+    final ByteBuffer cached = (ByteBuffer) cache.get(0, FRAME_INTERVAL).image[0];
+
+    assertEquals(planes.capacity(), cached.capacity());
+    assertEquals(42, cached.get(150));
+    assertEquals(16 * 8, planes.limit());
+  }
+
+  /**
+   * Creates a small BGR frame.
+   *
+   * @param timestamp The frame timestamp in microseconds.
+   * @return The frame.
+   */
+  private static Frame frame(final long timestamp) {
+
+    final Frame frame = new Frame(16, 8, Frame.DEPTH_UBYTE, 3);
+    frame.timestamp = timestamp;
+    return frame;
+  }
+}
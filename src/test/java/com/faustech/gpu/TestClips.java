@@ -0,0 +1,54 @@
+package com.faustech.gpu;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+
+/** Generates small video clips for tests, so no media files have to be checked in. */
+final class TestClips {
+
+  private TestClips() {}
+
+  /**
+   * Encodes an MPEG-4 clip at 25 fps whose frames all differ, so misordered or duplicated frames
+   * are caught.
+   *
+   * @param video The file to write.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @param frames The number of frames.
+   * @param gopSize The number of frames between two keyframes.
+   * @throws Exception If the clip cannot be encoded.
+   */
+  static void encode(
+      final Path video, final int width, final int height, final int frames, final int gopSize)
+      throws Exception {
+
+    try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(video.toFile(), width, height)) {
+      recorder.setFormat("mp4");
+      recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+      recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+      recorder.setFrameRate(25);
+      recorder.setGopSize(gopSize);
+      recorder.start();
+
+      final Frame frame = new Frame(width, height, Frame.DEPTH_UBYTE, 3);
+      final ByteBuffer pixels = (ByteBuffer) frame.image[0];
+      for (int i = 0; i < frames; i++) {
+        for (int y = 0; y < height; y++) {
+          for (int x = 0; x < width; x++) {
+            final int pixel = y * frame.imageStride + x * 3;
+            pixels.put(pixel, (byte) (x * 4 + i));
+            pixels.put(pixel + 1, (byte) (y * 5 - i * 2));
+            pixels.put(pixel + 2, (byte) (i * 7));
+          }
+        }
+        recorder.record(frame);
+      }
+      recorder.stop();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.faustech.memory.FrameBuffer;
+import com.faustech.memory.Yuv420;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Checks where seeks land, with the keyframe index and with FFmpeg's own search. */
+class VideoSeekTest {
+
+  private static final int WIDTH = 64;
+
+  private static final int HEIGHT = 48;
+
+  private static final int FRAMES = 100;
+
+  private static final int GOP_SIZE = 10;
+
+  private static final double FRAME_RATE = 25;
+
+  private static final long FRAME_INTERVAL = 40_000; // Microseconds at 25 fps
+
+  private static final long[] TARGETS = {
+    0, // First frame
+    FRAME_INTERVAL * 10, // On a keyframe
+    FRAME_INTERVAL * 17, // Inside a group of pictures
+    FRAME_INTERVAL * 3 + 7, // Between two frames
+    FRAME_INTERVAL * 56 - 2, // Just before a frame
+    FRAME_INTERVAL * 99, // Last frame
+    FRAME_INTERVAL * 4 // Backwards
+  };
+
+  @TempDir static Path directory;
+
+  private static Path video;
+
+  private static List<byte[]> reference;
+
+  private static KeyframeIndex index;
+
+  /** Encodes the clip, decodes it front to back as the reference and indexes it. */
+  @BeforeAll
+  static void generateClip() throws Exception {
+
+    video = directory.resolve("clip.mp4");
+    TestClips.encode(video, WIDTH, HEIGHT, FRAMES, GOP_SIZE);
+    index = KeyframeIndex.load(video.toString(), directory.resolve("cache"));
+
+    reference = new ArrayList<>();
+    try (FFmpegFrameGrabber grabber = open()) {
+      Frame frame;
+      while ((frame = grabber.grabImage()) != null) {
+        assertEquals(reference.size() * FRAME_INTERVAL, frame.timestamp);
+        reference.add(yuv(frame));
+      }
+    }
+    assertEquals(FRAMES, reference.size());
+  }
+
+  /** Seeking through the index shows the frame at each target, as decoding front to back does. */
+  @Test
+  void indexedSeekMatchesSequentialDecode() throws Exception {
+
+    try (FFmpegFrameGrabber grabber = open()) {
+      long lastGrabbed = -1;
+      for (long target : TARGETS) {
+        VideoFrameToVertexArray.positionAt(grabber, index, target, lastGrabbed, FRAME_RATE);
+        final Frame frame = grabber.grabImage();
+        final int expected = (int) (target / FRAME_INTERVAL);
+
+        assertEquals(expected * FRAME_INTERVAL, frame.timestamp, "timestamp after " + target);
+        assertArrayEquals(reference.get(expected), yuv(frame), "pixels after " + target);
+        lastGrabbed = frame.timestamp;
+      }
+    }
+  }
+
+  /** FFmpeg's own search, used until the index is ready, lands within a frame of the target. */
+  @Test
+  void searchedSeekLandsNearTarget() throws Exception {
+
+    try (FFmpegFrameGrabber grabber = open()) {
+      for (long target : TARGETS) {
+        VideoFrameToVertexArray.positionAt(grabber, null, target, -1, FRAME_RATE);
+        final Frame frame = grabber.grabImage();
+
+        assertTrue(
+            Math.abs(frame.timestamp - target) < FRAME_INTERVAL,
+            "landed on " + frame.timestamp + " after " + target);
+        assertArrayEquals(
+            reference.get((int) (frame.timestamp / FRAME_INTERVAL)),
+            yuv(frame),
+            "pixels after " + target);
+      }
+    }
+  }
+
+  /** A target ahead in the group of pictures being played is reached by decoding forward. */
+  @Test
+  void seekAheadInGroupDecodesForward() throws Exception {
+
+    try (FFmpegFrameGrabber grabber = open()) {
+      Frame frame = null;
+      for (int i = 0; i <= 12; i++) {
+        frame = grabber.grabImage();
+      }
+      VideoFrameToVertexArray.positionAt(
+          grabber, index, FRAME_INTERVAL * 17 + 5, frame.timestamp, FRAME_RATE);
+
+      frame = grabber.grabImage();
+      assertEquals(FRAME_INTERVAL * 17, frame.timestamp);
+      assertArrayEquals(reference.get(17), yuv(frame));
+    }
+  }
+
+  /** A seek requested through the public API displays the requested frame and is timed. */
+  @Test
+  void seekRequestIsDisplayed() throws Exception {
+
+    final FrameBuffer frameBuffer = new FrameBuffer(0, Yuv420.frameSize(WIDTH, HEIGHT));
+    final VideoFrameToVertexArray producer =
+        new VideoFrameToVertexArray(
+            video.toString(), WIDTH, HEIGHT, frameBuffer, ColorSpace.BT709, null);
+    producer.setDaemon(true);
+    producer.start();
+    try {
+      assertTrue(frameBuffer.awaitFirstFrame(10, TimeUnit.SECONDS));
+
+      for (long target : new long[] {FRAME_INTERVAL * 77 + 11, FRAME_INTERVAL * 23}) {
+        final long seeks = producer.getSeekLatency().getCount();
+        producer.seek(target);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (producer.getSeekLatency().getCount() == seeks && System.nanoTime() < deadline) {
+          TimeUnit.MILLISECONDS.sleep(1);
+        }
+        final long position = producer.getPosition();
+
+        assertEquals(seeks + 1, producer.getSeekLatency().getCount());
+        final long expected = target / FRAME_INTERVAL * FRAME_INTERVAL;
+        // The first seek may precede the index and land a frame early; playback goes on after
+        // the seek, so a few later frames may have been shown since
+        assertTrue(
+            position >= expected - FRAME_INTERVAL && position < expected + 5 * FRAME_INTERVAL,
+            "position " + position + " after seeking to " + target);
+      }
+    } finally {
+      producer.interrupt();
+      producer.join();
+    }
+  }
+
+  /**
+   * Opens the clip the way the producer does on its YUV path.
+   *
+   * @return The started grabber.
+   */
+  private static FFmpegFrameGrabber open() throws Exception {
+
+    final FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile());
+    grabber.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+    grabber.setImageWidth(WIDTH);
+    grabber.setImageHeight(HEIGHT);
+    grabber.start();
+    return grabber;
+  }
+
+  /**
+   * Copies the planes of a decoded frame.
+   *
+   * @param frame The frame.
+   * @return The planar YUV420 bytes.
+   */
+  private static byte[] yuv(final Frame frame) {
+
+    final byte[] yuv = new byte[Yuv420.frameSize(WIDTH, HEIGHT)];
+    Yuv420.copyPlanes(
+        (ByteBuffer) frame.image[0], frame.imageStride, WIDTH, HEIGHT, ByteBuffer.wrap(yuv), 0);
+    return yuv;
+  }
+}
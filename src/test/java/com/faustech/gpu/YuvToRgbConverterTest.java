@@ -0,0 +1,134 @@
+package com.faustech.gpu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Checks the CPU reference, and with it the shader matrix, against published values. */
+class YuvToRgbConverterTest {
+
+  private static final float MATRIX_TOLERANCE = 0.001f; // Published matrices have 3-4 decimals
+
+  private static final float COLOR_TOLERANCE = 0.01f; // 8-bit YUV rounding of exact RGB colors
+
+  /** The BT.601 matrix matches the published limited-range coefficients. */
+  @Test
+  void bt601MatrixMatchesStandard() {
+
+    assertArrayEquals(
+        new float[] {1.164f, 0, 1.596f, 1.164f, -0.392f, -0.813f, 1.164f, 2.017f, 0},
+        ColorSpace.BT601.getMatrix(),
+        MATRIX_TOLERANCE);
+  }
+
+  /** The BT.709 matrix matches the published limited-range coefficients. */
+  @Test
+  void bt709MatrixMatchesStandard() {
+
+    assertArrayEquals(
+        new float[] {1.164f, 0, 1.793f, 1.164f, -0.213f, -0.533f, 1.164f, 2.112f, 0},
+        ColorSpace.BT709.getMatrix(),
+        MATRIX_TOLERANCE);
+  }
+
+  /** Limited-range black and white map to the ends of the RGB range in both color spaces. */
+  @Test
+  void blackAndWhite() {
+
+    for (ColorSpace colorSpace : ColorSpace.values()) {
+      assertColor(colorSpace, 16, 128, 128, 0, 0, 0);
+      assertColor(colorSpace, 235, 128, 128, 1, 1, 1);
+    }
+  }
+
+  /** The 8-bit BT.601 encodings of the primaries convert back to the primaries. */
+  @Test
+  void bt601Primaries() {
+
+    assertColor(ColorSpace.BT601, 81, 90, 240, 1, 0, 0);
+    assertColor(ColorSpace.BT601, 145, 54, 34, 0, 1, 0);
+    assertColor(ColorSpace.BT601, 41, 240, 110, 0, 0, 1);
+  }
+
+  /** The 8-bit BT.709 encodings of the primaries convert back to the primaries. */
+  @Test
+  void bt709Primaries() {
+
+    assertColor(ColorSpace.BT709, 63, 102, 240, 1, 0, 0);
+    assertColor(ColorSpace.BT709, 173, 42, 26, 0, 1, 0);
+    assertColor(ColorSpace.BT709, 32, 240, 118, 0, 0, 1);
+  }
+
+  /** Every pixel of a frame takes its chroma from the sample covering its 2x2 block. */
+  @Test
+  void convertFrameSubsamplesChroma() {
+
+    final int width = 4;
+    final int height = 4;
+    final byte[] planes = new byte[width * height * 3 / 2];
+    for (int i = 0; i < width * height; i++) {
+      planes[i] = (byte) (100 + i * 5);
+    }
+    // One distinct chroma sample per 2x2 block: gray, red, green and blue
+    final int[] u = {128, 90, 54, 240};
+    final int[] v = {128, 240, 34, 110};
+    for (int i = 0; i < 4; i++) {
+      planes[width * height + i] = (byte) u[i];
+      planes[width * height + 4 + i] = (byte) v[i];
+    }
+
+    final YuvToRgbConverter converter = new YuvToRgbConverter(ColorSpace.BT601);
+    final float[] rgba = converter.convertFrame(planes, width, height);
+    final float[] expected = new float[3];
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        final int chroma = (y / 2) * 2 + x / 2;
+        converter.convert(
+            (planes[y * width + x] & 0xFF) / 255.0f,
+            u[chroma] / 255.0f,
+            v[chroma] / 255.0f,
+            expected);
+        final int pixel = (y * width + x) * 4;
+        assertEquals(expected[0], rgba[pixel], 0, "red at " + x + "," + y);
+        assertEquals(expected[1], rgba[pixel + 1], 0, "green at " + x + "," + y);
+        assertEquals(expected[2], rgba[pixel + 2], 0, "blue at " + x + "," + y);
+        assertEquals(1.0f, rgba[pixel + 3], 0, "alpha at " + x + "," + y);
+      }
+    }
+
+    // Gray chroma leaves the top-left block neutral
+    assertEquals(rgba[0], rgba[1], COLOR_TOLERANCE);
+    assertEquals(rgba[1], rgba[2], COLOR_TOLERANCE);
+  }
+
+  /**
+   * Converts an 8-bit sample and compares it with the expected color.
+   *
+   * @param colorSpace The color space of the sample.
+   * @param y The 8-bit luma sample.
+   * @param u The 8-bit blue-difference sample.
+   * @param v The 8-bit red-difference sample.
+   * @param r The expected red.
+   * @param g The expected green.
+   * @param b The expected blue.
+   */
+  private static void assertColor(
+      final ColorSpace colorSpace,
+      final int y,
+      final int u,
+      final int v,
+      final float r,
+      final float g,
+      final float b) {
+
+    final float[] rgb = new float[3];
+    new YuvToRgbConverter(colorSpace).convert(y / 255.0f, u / 255.0f, v / 255.0f, rgb);
+    assertArrayEquals(
+        new float[] {r, g, b},
+        rgb,
+        COLOR_TOLERANCE,
+        String.format("%s (%d, %d, %d)", colorSpace, y, u, v));
+  }
+}
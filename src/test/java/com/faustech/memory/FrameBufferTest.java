@@ -0,0 +1,40 @@
+package com.faustech.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Checks the first-frame gate the renderer waits on. */
+class FrameBufferTest {
+
+  /** Nothing is released before the first swap; the first swap releases waiting readers. */
+  @Test
+  void firstSwapReleasesWaiters() throws Exception {
+
+    final FrameBuffer frameBuffer = new FrameBuffer(0, 64);
+    assertFalse(frameBuffer.hasFrame());
+    assertFalse(frameBuffer.awaitFirstFrame(10, TimeUnit.MILLISECONDS));
+
+    final CompletableFuture<Boolean> waiter =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return frameBuffer.awaitFirstFrame(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                return false;
+              }
+            });
+    TimeUnit.MILLISECONDS.sleep(50);
+    assertFalse(waiter.isDone(), "released before the first swap");
+
+    frameBuffer.swap();
+    assertTrue(waiter.get(5, TimeUnit.SECONDS));
+    assertTrue(frameBuffer.hasFrame());
+    assertTrue(frameBuffer.awaitFirstFrame(0, TimeUnit.MILLISECONDS));
+    assertEquals(1, frameBuffer.getGeneration());
+  }
+}
@@ -0,0 +1,304 @@
+package com.faustech.memory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.lang.foreign.MemorySegment;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Checks the seqlock, epoch and file replacement rules of the shared frame ring. */
+class SharedFrameRingTest {
+
+  private static final int SLOT_COUNT = 3;
+
+  private static final int FRAME_SIZE = 24; // A 4x4 YUV420 frame
+
+  @TempDir Path directory;
+
+  /** A committed frame reaches the reader byte for byte. */
+  @Test
+  void publishedFrameIsRead() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    try (SharedFrameProducer producer = SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE);
+        SharedFrameRing reader = SharedFrameRing.open(path)) {
+      final byte[] frame = frame(7);
+      producer.publish(frame);
+
+      assertEquals(0, reader.getPublishedSequence());
+      assertTrue(reader.getHeartbeat() > 0);
+      assertArrayEquals(frame, read(reader, 0));
+    }
+  }
+
+  /** A frame begun but not committed, or overwritten by a later lap, is rejected. */
+  @Test
+  void tornOrLappedSlotIsRejected() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    try (SharedFrameProducer producer = SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE);
+        SharedFrameRing reader = SharedFrameRing.open(path)) {
+      final FrameBuffer frameBuffer = new FrameBuffer(0, FRAME_SIZE);
+
+      producer.beginFrame();
+      assertFalse(reader.readFrame(0, frameBuffer), "torn slot");
+      producer.commitFrame();
+      assertTrue(reader.readFrame(0, frameBuffer));
+
+      for (int i = 1; i <= SLOT_COUNT; i++) {
+        producer.publish(frame(i));
+      }
+      assertFalse(reader.readFrame(0, frameBuffer), "lapped slot");
+      assertTrue(reader.readFrame(SLOT_COUNT, frameBuffer));
+    }
+  }
+
+  /** A writer that laps the slot while it is being copied invalidates the copy. */
+  @Test
+  void slotLappedDuringCopyIsRejected() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    try (SharedFrameProducer producer = SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE);
+        SharedFrameRing reader = SharedFrameRing.open(path)) {
+      for (int i = 0; i < SLOT_COUNT; i++) {
+        producer.publish(frame(i));
+      }
+      final FrameBuffer racing =
+          new FrameBuffer(0, FRAME_SIZE) {
+            @Override
+            public void writeToYuvBuffer(
+                final int beginAddress,
+                final MemorySegment data,
+                final long dataOffset,
+                final int length)
+                throws MemoryException {
+
+              super.writeToYuvBuffer(beginAddress, data, dataOffset, length);
+              producer.beginFrame(); // Sequence 3 takes the slot of sequence 0 mid-copy
+            }
+          };
+
+      assertFalse(reader.readFrame(0, racing));
+    }
+  }
+
+  /** A restarted producer reuses the file, bumps the epoch and continues the sequence. */
+  @Test
+  void reuseBumpsEpochAndContinuesSequence() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    try (SharedFrameRing reader = openedRing(path, 5)) {
+      final long epoch = reader.getEpoch();
+      final Object fileKey = reader.getFileKey();
+
+      try (SharedFrameProducer restarted = SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE)) {
+        assertEquals(epoch + 1, reader.getEpoch());
+        assertEquals(fileKey, SharedFrameRing.fileKey(path));
+
+        restarted.publish(frame(5));
+        assertEquals(5, reader.getPublishedSequence());
+        assertArrayEquals(frame(5), read(reader, 5));
+      }
+    }
+  }
+
+  /** A producer with another geometry replaces the file, leaving old mappings readable. */
+  @Test
+  void geometryChangeReplacesFile() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    try (SharedFrameRing reader = openedRing(path, 1)) {
+      final Object fileKey = reader.getFileKey();
+
+      try (SharedFrameProducer resized =
+              SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE * 4);
+          SharedFrameRing replaced = SharedFrameRing.open(path)) {
+        assertNotEquals(fileKey, SharedFrameRing.fileKey(path));
+        assertEquals(FRAME_SIZE * 4, replaced.getFrameSize());
+        assertEquals(-1, replaced.getPublishedSequence());
+        assertArrayEquals(frame(0), read(reader, 0));
+      }
+    }
+  }
+
+  /** Frames published by {@link SharedFrameProducer#main} in another JVM reach this one. */
+  @Test
+  void framesCrossProcesses() throws Exception {
+
+    final Path path = directory.resolve("ring");
+    final int width = 16;
+    final int height = 8;
+
+    final long firstEpoch;
+    final long lastSequence;
+    Process process = startProducer(path, width, height);
+    try (SharedFrameRing ring = awaitFrames(path, 0)) {
+      firstEpoch = ring.getEpoch();
+      final FrameBuffer frameBuffer = new FrameBuffer(0, ring.getFrameSize());
+      boolean intact = false;
+      for (int attempt = 0; attempt < 100 && !intact; attempt++) {
+        intact = ring.readFrame(ring.getPublishedSequence(), frameBuffer);
+      }
+      assertTrue(intact);
+      frameBuffer.swap();
+      final ByteBuffer frame = ByteBuffer.allocate(ring.getFrameSize());
+      frameBuffer.readFromYuvBuffer(frame);
+
+      for (int x = 1; x < width; x++) {
+        final int step = (frame.get(x) - frame.get(x - 1) + 220) % 220;
+        assertEquals(1, step, "gradient at x " + x);
+      }
+      assertEquals(128, frame.get(width * height) & 0xFF);
+
+      process.destroy();
+      assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+      lastSequence = ring.getPublishedSequence();
+    } finally {
+      process.destroyForcibly();
+    }
+
+    process = startProducer(path, width, height);
+    try (SharedFrameRing ring = awaitFrames(path, lastSequence + 1)) {
+      assertEquals(firstEpoch + 1, ring.getEpoch());
+    } finally {
+      process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Creates a ring, publishes frames to it and returns a reader mapping.
+   *
+   * @param path The ring file.
+   * @param frames The number of frames to publish.
+   * @return The reader mapping.
+   */
+  private static SharedFrameRing openedRing(final Path path, final int frames) throws Exception {
+
+    try (SharedFrameProducer producer = SharedFrameProducer.open(path, SLOT_COUNT, FRAME_SIZE)) {
+      for (int i = 0; i < frames; i++) {
+        producer.publish(frame(i));
+      }
+    }
+    return SharedFrameRing.open(path);
+  }
+
+  /**
+   * Reads a published frame the way the frame source does.
+   *
+   * @param ring The ring to read from.
+   * @param sequence The sequence of the frame.
+   * @return The frame bytes.
+   */
+  private static byte[] read(final SharedFrameRing ring, final long sequence) throws Exception {
+
+    final FrameBuffer frameBuffer = new FrameBuffer(0, ring.getFrameSize());
+    assertTrue(ring.readFrame(sequence, frameBuffer));
+    frameBuffer.swap();
+    final ByteBuffer frame = ByteBuffer.allocate(ring.getFrameSize());
+    frameBuffer.readFromYuvBuffer(frame);
+    return frame.array();
+  }
+
+  /**
+   * Creates a frame whose bytes all carry a marker value.
+   *
+   * @param marker The marker value.
+   * @return The frame bytes.
+   */
+  private static byte[] frame(final int marker) {
+
+    final byte[] frame = new byte[FRAME_SIZE];
+    for (int i = 0; i < FRAME_SIZE; i++) {
+      frame[i] = (byte) (marker + i);
+    }
+    return frame;
+  }
+
+  /**
+   * Starts {@link SharedFrameProducer#main} in a new JVM with the classes under test.
+   *
+   * @param path The ring file.
+   * @param width The frame width.
+   * @param height The frame height.
+   * @return The producer process.
+   */
+  private static Process startProducer(final Path path, final int width, final int height)
+      throws Exception {
+
+    final List<String> command = new ArrayList<>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("--enable-preview")) {
+      command.add("--enable-preview");
+    }
+    command.add("-cp");
+    command.add(classPath(SharedFrameRing.class, SharedFrameProducer.class));
+    command.add(SharedFrameProducer.class.getName());
+    command.add(path.toString());
+    command.add(Integer.toString(width));
+    command.add(Integer.toString(height));
+
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+  }
+
+  /**
+   * Builds a class path from the locations the given classes were loaded from.
+   *
+   * @param classes The classes the child JVM needs.
+   * @return The class path.
+   */
+  private static String classPath(final Class<?>... classes) throws URISyntaxException {
+
+    final Set<String> entries = new LinkedHashSet<>();
+    for (Class<?> type : classes) {
+      entries.add(
+          Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+    }
+    return String.join(File.pathSeparator, entries);
+  }
+
+  /**
+   * Waits until the ring exists and has published the given sequence.
+   *
+   * @param path The ring file.
+   * @param sequence The sequence to wait for.
+   * @return The reader mapping.
+   */
+  private static SharedFrameRing awaitFrames(final Path path, final long sequence)
+      throws Exception {
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (System.nanoTime() < deadline) {
+      final SharedFrameRing ring = Files.exists(path) ? SharedFrameRing.open(path) : null;
+      if (ring != null) {
+        while (System.nanoTime() < deadline) {
+          if (ring.getPublishedSequence() >= sequence) {
+            return ring;
+          }
+          TimeUnit.MILLISECONDS.sleep(10);
+        }
+        ring.close();
+      }
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    return fail("No frame " + sequence + " published to " + path);
+  }
+}
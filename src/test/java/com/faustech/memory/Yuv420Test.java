@@ -0,0 +1,95 @@
+package com.faustech.memory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+/** Checks the packing of padded decoder planes. */
+class Yuv420Test {
+
+  /** A packed frame is 1.5 bytes per pixel. */
+  @Test
+  void frameSize() {
+
+    assertEquals(1080 * 720 * 3 / 2, Yuv420.frameSize(1080, 720));
+  }
+
+  /** Row padding is dropped from every plane and the planes are packed back to back. */
+  @Test
+  void copyPlanesDropsPadding() {
+
+    final int width = 4;
+    final int height = 2;
+    final int lumaStride = 8; // 4 padding bytes per luma row, 2 per chroma row
+    final ByteBuffer source = ByteBuffer.allocate(lumaStride * height * 3 / 2);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        source.put(y * lumaStride + x, (byte) (10 + y * width + x));
+      }
+    }
+    source.put(lumaStride * height, (byte) 50).put(lumaStride * height + 1, (byte) 51);
+    source.put(lumaStride * height + 4, (byte) 60).put(lumaStride * height + 5, (byte) 61);
+    source.limit(lumaStride * height); // JavaCV limits decoded frames to their luma plane
+
+    final ByteBuffer target = ByteBuffer.allocate(2 + Yuv420.frameSize(width, height));
+    Yuv420.copyPlanes(source, lumaStride, width, height, target, 2);
+
+    assertArrayEquals(
+        new byte[] {0, 0, 10, 11, 12, 13, 14, 15, 16, 17, 50, 51, 60, 61}, target.array());
+  }
+
+  /**
+   * Odd heights get a rounded-up chroma row, and the chroma stride is not assumed to be half the
+   * luma stride.
+   */
+  @Test
+  void copyPlanesDerivesChromaLayout() {
+
+    final int lumaStride = 8;
+    final int chromaStride = 6; // More than half the luma stride
+    final ByteBuffer source = ByteBuffer.allocate(lumaStride * 3 + 2 * chromaStride * 2);
+    for (int i = 0; i < source.capacity(); i++) {
+      source.put(i, (byte) i);
+    }
+
+    final ByteBuffer target = ByteBuffer.allocate(Yuv420.frameSize(4, 3));
+    Yuv420.copyPlanes(source, lumaStride, 4, 3, target, 0);
+
+    final int u = lumaStride * 3;
+    final int v = u + chromaStride * 2;
+    assertArrayEquals(
+        new byte[] {
+          0, 1, 2, 3, 8, 9, 10, 11, 16, 17, 18, 19, // Luma
+          (byte) u, (byte) (u + 1), (byte) v, (byte) (v + 1) // One chroma row of each plane
+        },
+        target.array());
+  }
+
+  /** A buffer whose size fits no chroma stride is rejected instead of read with a guessed one. */
+  @Test
+  void copyPlanesRejectsUnknownLayout() {
+
+    final ByteBuffer target = ByteBuffer.allocate(Yuv420.frameSize(4, 2));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Yuv420.copyPlanes(ByteBuffer.allocate(8 * 2 + 7), 8, 4, 2, target, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Yuv420.copyPlanes(ByteBuffer.allocate(8 * 2 + 2), 8, 4, 2, target, 0));
+  }
+
+  /** A frame larger than the back buffer is rejected before any byte is copied. */
+  @Test
+  void writeYuvFrameChecksSize() {
+
+    final FrameBuffer frameBuffer = new FrameBuffer(0, Yuv420.frameSize(4, 2));
+    final ByteBuffer source = ByteBuffer.allocate(64);
+
+    frameBuffer.writeYuvFrame(source, 4, 4, 2);
+    assertThrows(MemoryException.class, () -> frameBuffer.writeYuvFrame(source, 8, 8, 2));
+  }
+}
@@ -0,0 +1,100 @@
+package com.faustech.soak;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.faustech.gpu.StartupEvent;
+import com.faustech.gpu.StartupTimeline;
+import com.faustech.memory.FrameBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the soak consumer measures the producer, not its own polling loop, and records the
+ * startup milestones a soak run is gated on.
+ */
+class HeadlessConsumerTest {
+
+  /** A synthetic source and the consumer record the startup milestones in order. */
+  @Test
+  void recordsStartupInOrder() throws InterruptedException {
+
+    StartupTimeline.start();
+    final FrameBuffer frameBuffer = new FrameBuffer(0, 16 * 8 * 3 / 2);
+    final SyntheticFrameSource producer = new SyntheticFrameSource(16, 8, frameBuffer);
+    final HeadlessConsumer consumer = new HeadlessConsumer(frameBuffer, true);
+    producer.setDaemon(true);
+    consumer.setDaemon(true);
+    producer.start();
+    consumer.start();
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (StartupTimeline.getTimeToFirstFrameNanos() < 0 && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(1);
+    }
+    producer.interrupt();
+    consumer.interrupt();
+    producer.join();
+    consumer.join();
+
+    final long opened = StartupTimeline.getElapsedNanos(StartupEvent.DECODER_OPENED);
+    final long written = StartupTimeline.getElapsedNanos(StartupEvent.FIRST_FRAME_WRITTEN);
+    final long presented = StartupTimeline.getElapsedNanos(StartupEvent.FIRST_FRAME_PRESENTED);
+    final String report = StartupTimeline.getReport();
+    assertTrue(opened >= 0, report);
+    assertTrue(opened <= written, report);
+    assertTrue(written <= presented, report);
+    assertEquals(presented, StartupTimeline.getTimeToFirstFrameNanos());
+    assertTrue(frameBuffer.hasFrame());
+  }
+
+  /** Only new frames are timed, so a stalled producer leaves a gap the run fails on. */
+  @Test
+  void stalledProducerFailsTheRun() throws InterruptedException {
+
+    final FrameBuffer frameBuffer = new FrameBuffer(0, 64);
+    final HeadlessConsumer consumer = new HeadlessConsumer(frameBuffer, true);
+    final RuntimeSampler sampler = new RuntimeSampler();
+    consumer.setDaemon(true);
+    consumer.start();
+
+    for (int i = 0; i < 3; i++) {
+      final long previous = consumer.getLastFrameNanos();
+      frameBuffer.swap();
+      while (consumer.getLastFrameNanos() == previous) {
+        TimeUnit.MILLISECONDS.sleep(1); // Wait until the consumer has read the frame
+      }
+    }
+    final long lastFrame = consumer.getLastFrameNanos();
+    TimeUnit.MILLISECONDS.sleep(300); // The producer stalls while the consumer keeps polling
+
+    final SoakSample sample = sampler.sample(1000, consumer);
+    consumer.interrupt();
+    consumer.join();
+
+    assertEquals(lastFrame, consumer.getLastFrameNanos());
+    assertEquals(2, sample.frames());
+    assertTrue(sample.maxFrameGapMillis() >= 300, "gap " + sample.maxFrameGapMillis());
+
+    final SoakConfig config =
+        SoakConfig.builder()
+            .durationSeconds(1)
+            .sampleIntervalSeconds(1)
+            .maxTimeToFirstFrameMillis(1000)
+            .minFrameRate(24)
+            .maxFrameGapMillis(250)
+            .maxP99FrameMillis(1000)
+            .maxAllocationMbPerSecond(Double.MAX_VALUE)
+            .maxGcPausePercent(100)
+            .build();
+    final SoakReport report = new SoakReport(config);
+    report.add(sample);
+    report.setTimeToFirstFrame(TimeUnit.MILLISECONDS.toNanos(1));
+
+    final List<String> violations = report.getViolations();
+    assertEquals(2, violations.size(), violations.toString());
+    assertTrue(violations.get(0).startsWith("Produced "), violations.get(0));
+    assertTrue(violations.get(1).startsWith("No new frame for "), violations.get(1));
+  }
+}
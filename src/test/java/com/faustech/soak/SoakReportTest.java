@@ -0,0 +1,106 @@
+package com.faustech.soak;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Checks the startup thresholds and recorded settings of a soak report. */
+class SoakReportTest {
+
+  /** A run whose first frame arrives in time passes; a late or missing one fails. */
+  @Test
+  void timeToFirstFrameThreshold() {
+
+    assertTrue(reportWithTimeToFirstFrame(TimeUnit.MILLISECONDS.toNanos(150)).isEmpty());
+    assertEquals(
+        List.of("Time to first frame 900.00 ms exceeds 500.00 ms"),
+        reportWithTimeToFirstFrame(TimeUnit.MILLISECONDS.toNanos(900)));
+    assertEquals(List.of("No frame reached the consumer"), reportWithTimeToFirstFrame(-1));
+  }
+
+  /** The placement a run used is recorded, so pinned and unpinned runs can be compared. */
+  @Test
+  void recordsPlacement() {
+
+    final SoakReport report = new SoakReport(config());
+    assertTrue(report.toJson().contains("\"placement\": \"unpinned\""));
+
+    report.setPlacement("decode: core 2 (os 2, node 0), allocator: jemalloc on node 0", "jemalloc");
+    final String json = report.toJson();
+    assertTrue(
+        json.contains("\"placement\": \"decode: core 2 (os 2, node 0), allocator: jemalloc"), json);
+    assertTrue(json.contains("\"allocator\": \"jemalloc\""), json);
+  }
+
+  /** A run without a first frame writes null rather than a negative time, and fails. */
+  @Test
+  void missingFirstFrameIsNull() {
+
+    final SoakReport report = new SoakReport(config());
+    final String json = report.toJson();
+
+    assertTrue(json.contains("\"timeToFirstFrameMs\": null,"), json);
+    assertTrue(json.contains("\"passed\": false"), json);
+    assertTrue(json.contains("\"No frame reached the consumer\""), json);
+  }
+
+  /** The build and pixel format of a run are recorded, so runs can be compared. */
+  @Test
+  void recordsBuildAndPixelFormat() {
+
+    final String json = new SoakReport(config()).toJson();
+    assertTrue(json.contains("\"build\": \"abc1234\""), json);
+    assertTrue(json.contains("\"pixelFormat\": \"yuv420\""), json);
+
+    final String rgba = new SoakReport(config(null, false)).toJson();
+    assertTrue(rgba.contains("\"build\": null"), rgba);
+    assertTrue(rgba.contains("\"pixelFormat\": \"rgba\""), rgba);
+  }
+
+  /**
+   * Checks a run without samples, so only the startup thresholds apply.
+   *
+   * @param nanos The time to first frame.
+   * @return The violations of the run.
+   */
+  private static List<String> reportWithTimeToFirstFrame(final long nanos) {
+
+    final SoakReport report = new SoakReport(config());
+    report.setTimeToFirstFrame(nanos);
+    return report.getViolations();
+  }
+
+  /**
+   * Creates the configuration of a YUV420 run without samples.
+   *
+   * @return The configuration.
+   */
+  private static SoakConfig config() {
+
+    return config("abc1234", true);
+  }
+
+  /**
+   * Creates the configuration of a run without samples.
+   *
+   * @param buildId The build under test, or null if unknown.
+   * @param yuv Whether frames travel as YUV420.
+   * @return The configuration.
+   */
+  private static SoakConfig config(final String buildId, final boolean yuv) {
+
+    return SoakConfig.builder()
+        .buildId(buildId)
+        .source("synthetic")
+        .yuv(yuv)
+        .durationSeconds(0)
+        .sampleIntervalSeconds(1)
+        .reportPath(Path.of("soak-report.json"))
+        .maxTimeToFirstFrameMillis(500)
+        .build();
+  }
+}
@@ -0,0 +1,98 @@
+package com.faustech.topology;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.faustech.memory.NativeAllocator;
+import java.util.Properties;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/** Checks how the {@code placement.*} properties are read and what happens without hwloc. */
+class ThreadPlacementTest {
+
+  private static final Supplier<Topology> NOT_LOADED =
+      () -> fail("The topology is only needed when a core is requested");
+
+  /** Without properties the pipeline runs unpinned on the Java heap. */
+  @Test
+  void defaultsToUnpinnedHeap() {
+
+    try (ThreadPlacement placement = ThreadPlacement.fromProperties(new Properties(), NOT_LOADED)) {
+      assertEquals(NativeAllocator.HEAP, placement.getAllocator());
+      assertEquals(-1, placement.getNumaNode());
+      for (PipelineRole role : PipelineRole.values()) {
+        assertNull(placement.getCore(role));
+      }
+      assertEquals(
+          "decode: unpinned, convert: unpinned, render: unpinned, allocator: heap",
+          placement.getReport());
+    }
+  }
+
+  /** The allocator is matched regardless of case and whitespace, without loading hwloc. */
+  @Test
+  void readsAllocator() {
+
+    final Properties properties = new Properties();
+    properties.setProperty("placement.allocator", " JeMalloc ");
+
+    try (ThreadPlacement placement = ThreadPlacement.fromProperties(properties, NOT_LOADED)) {
+      assertEquals(NativeAllocator.JEMALLOC, placement.getAllocator());
+      assertEquals(-1, placement.getNumaNode());
+    }
+  }
+
+  /** Cores and allocators that do not parse are rejected with the property named. */
+  @Test
+  void rejectsInvalidValues() {
+
+    for (String core : new String[] {"abc", "-1", ""}) {
+      final Properties properties = new Properties();
+      properties.setProperty("placement.render", core);
+      final IllegalArgumentException e =
+          assertThrows(
+              IllegalArgumentException.class,
+              () -> ThreadPlacement.fromProperties(properties, NOT_LOADED));
+      assertTrue(e.getMessage().contains("placement.render"), e.getMessage());
+    }
+
+    final Properties properties = new Properties();
+    properties.setProperty("placement.allocator", "tcmalloc");
+    final IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ThreadPlacement.fromProperties(properties, NOT_LOADED));
+    assertTrue(e.getMessage().contains("placement.allocator"), e.getMessage());
+  }
+
+  /** Requested cores are dropped when hwloc cannot be loaded, so pinning does nothing. */
+  @Test
+  void fallsBackToUnpinnedWithoutHwloc() {
+
+    final Properties properties = new Properties();
+    properties.setProperty("placement.decode", "2");
+    properties.setProperty("placement.render", " 3 ");
+    properties.setProperty("placement.allocator", "jemalloc");
+
+    try (ThreadPlacement placement =
+        ThreadPlacement.fromProperties(
+            properties,
+            () -> {
+              throw new UnsatisfiedLinkError("no hwloc");
+            })) {
+      assertNull(placement.getCore(PipelineRole.DECODE));
+      assertNull(placement.getCore(PipelineRole.RENDER));
+      assertEquals(-1, placement.getNumaNode());
+
+      placement.pin(PipelineRole.DECODE);
+      placement.pinToNode(PipelineRole.RENDER);
+      assertEquals(
+          "decode: unpinned, convert: unpinned, render: unpinned, allocator: jemalloc",
+          placement.getReport());
+    }
+  }
+}
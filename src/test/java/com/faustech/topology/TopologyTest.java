@@ -0,0 +1,46 @@
+package com.faustech.topology;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/** Checks the fallbacks of the hwloc topology on machines where hwloc loads. */
+class TopologyTest {
+
+  /** Missing NUMA information and unbindable memory are reported, not thrown. */
+  @Test
+  void fallbacks() {
+
+    try (Topology topology = load()) {
+      final int nodes = topology.getNumaNodeCount();
+      assertTrue(nodes >= 1);
+      assertTrue(topology.getCoreCount() >= 1);
+
+      final int node = topology.getNumaNodeOfCore(0);
+      assertTrue(node >= 0 && node < nodes, "node " + node);
+      assertFalse(topology.bindToNumaNode(ByteBuffer.allocate(64), 0), "heap buffer");
+      assertFalse(topology.bindToNumaNode(ByteBuffer.allocateDirect(64), nodes), "missing node");
+      assertThrows(
+          IllegalArgumentException.class, () -> topology.getCoreOsIndex(topology.getCoreCount()));
+    }
+  }
+
+  /**
+   * Loads the topology, skipping the test where hwloc is unavailable.
+   *
+   * @return The topology.
+   */
+  private static Topology load() {
+
+    try {
+      return new Topology();
+    } catch (RuntimeException | LinkageError e) {
+      Assumptions.abort("hwloc unavailable: " + e.getMessage());
+      return null;
+    }
+  }
+}